@@ -0,0 +1,129 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.subsystems.chassis.DriveMixer;
+import frc.robot.subsystems.chassis.LegacyDriveMixing;
+import frc.robot.subsystems.chassis.WheelOutput;
+
+/**
+ * ns/op of {@link DriveMixer} against the mixing it replaced, for arcade, curvature and tank.
+ * "gradlew jmh" runs it with the gc profiler, gc.alloc.rate.norm is bytes allocated per call.
+ *
+ * <p>Inputs are a recorded-looking joystick sweep so the sign branches aren't trivially predicted.
+ * That both give the same bits is checked by DriveMixerTest in "gradlew test".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriveMixerBenchmark {
+  private static final int INPUTS = 1024;
+
+  private final double[] xs = new double[INPUTS];
+  private final double[] zs = new double[INPUTS];
+  private final boolean[] buttons = new boolean[INPUTS];
+  private final WheelOutput out = new WheelOutput();
+  private DriveMixer mixer;
+  private LegacyDriveMixing legacy;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(1678);
+    for (int i = 0; i < INPUTS; i++) {
+      // mostly in range, some inside the deadband, some past full scale
+      xs[i] = Math.sin(i * 0.05) * 1.1 + random.nextGaussian() * 0.05;
+      zs[i] = Math.cos(i * 0.031) * 1.1 + random.nextGaussian() * 0.05;
+      buttons[i] = (i / 100) % 3 == 0;
+    }
+    mixer  = configure(new DriveMixer());
+    legacy = configure(new LegacyDriveMixing());
+  }
+
+  private int next() {
+    index = (index + 1) & (INPUTS - 1);
+    return index;
+  }
+
+  @Benchmark
+  public WheelOutput arcade() {
+    int i = next();
+    mixer.arcade(xs[i], zs[i], true, out);
+    return out;
+  }
+
+  @Benchmark
+  public WheelOutput arcadeLegacy() {
+    int i = next();
+    legacy.arcadeDrive(xs[i], zs[i], true, out);
+    return out;
+  }
+
+  @Benchmark
+  public WheelOutput curvature() {
+    int i = next();
+    mixer.curvature(xs[i], zs[i], buttons[i], out);
+    return out;
+  }
+
+  @Benchmark
+  public WheelOutput curvatureLegacy() {
+    int i = next();
+    legacy.curvatureDrive(xs[i], zs[i], buttons[i], out);
+    return out;
+  }
+
+  @Benchmark
+  public WheelOutput tank() {
+    int i = next();
+    mixer.tank(xs[i], zs[i], true, out);
+    return out;
+  }
+
+  @Benchmark
+  public WheelOutput tankLegacy() {
+    int i = next();
+    legacy.tankDrive(xs[i], zs[i], true, out);
+    return out;
+  }
+
+  /**
+   * Settings of ControlDrivetrain.
+   */
+  private static DriveMixer configure(DriveMixer mixer) {
+    mixer.setDeadband(0.08);
+    mixer.setQuickStopAlpha(0.1);
+    mixer.setQuickStopThreshold(0.1);
+    return mixer;
+  }
+
+  private static LegacyDriveMixing configure(LegacyDriveMixing legacy) {
+    legacy.setDeadband(0.08);
+    legacy.setQuickStopAlpha(0.1);
+    legacy.setQuickStopThreshold(0.1);
+    return legacy;
+  }
+}
@@ -0,0 +1,76 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+
+package frc.robot.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import frc.robot.commands.auto.LeftDown;
+import frc.robot.commands.auto.LeftUp;
+import frc.robot.commands.auto.OneMeter;
+import frc.robot.subsystems.chassis.sim.SimDrivetrain;
+import frc.robot.subsystems.chassis.trajectory.TrackingRecorder;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryRegistry;
+
+/**
+ * ms/op of a whole auto on {@link SimDrivetrain}, from the start to the end of its command.
+ * That it ends on the last pose is checked by SimDrivetrainTest in "gradlew test".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+  @Param({"OneMeter", "LeftDown", "LeftUp"})
+  public String auto;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    // "gradlew jmh" runs from the project directory
+    for (String path : Constants.Trajectory.all) {
+      TrajectoryRegistry.put(path, TrajectoryUtil.fromPathweaverJson(Paths.get("src/main/deploy", path)));
+    }
+    TrackingRecorder.setEnabled(false);
+  }
+
+  @Benchmark
+  public void run(Blackhole blackhole) {
+    SimDrivetrain drivetrain = new SimDrivetrain();
+    blackhole.consume(drivetrain.run(command(drivetrain), 30));
+    blackhole.consume(drivetrain.getPose());
+  }
+
+  private Command command(SimDrivetrain drivetrain) {
+    switch (auto) {
+      case "OneMeter": return new OneMeter(drivetrain);
+      case "LeftDown": return new LeftDown(drivetrain);
+      default:         return new LeftUp(drivetrain);
+    }
+  }
+}
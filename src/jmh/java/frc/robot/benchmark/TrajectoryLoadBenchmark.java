@@ -0,0 +1,69 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+
+package frc.robot.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
+import frc.robot.Constants;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryBinary;
+
+/**
+ * us/op of loading a PathWeaver json trajectory against its binary, see {@link TrajectoryBinary}.
+ * "gradlew jmh" compiles the binaries first and runs from the project directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectoryLoadBenchmark {
+  private static final Path JSON_DIRECTORY   = Paths.get("src/main/deploy");
+  private static final Path BINARY_DIRECTORY = Paths.get("build/trajectories");
+
+  @Param({Constants.Trajectory.OneMeter, Constants.Trajectory.two, Constants.Trajectory.three})
+  public String path;
+
+  private Path json;
+  private Path binary;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    json   = JSON_DIRECTORY.resolve(path);
+    binary = BINARY_DIRECTORY.resolve(TrajectoryBinary.binaryPathOf(path));
+  }
+
+  @Benchmark
+  public void json(Blackhole blackhole) throws IOException {
+    blackhole.consume(TrajectoryUtil.fromPathweaverJson(json));
+  }
+
+  @Benchmark
+  public void binary(Blackhole blackhole) throws IOException {
+    blackhole.consume(TrajectoryBinary.fromBinary(binary));
+  }
+}
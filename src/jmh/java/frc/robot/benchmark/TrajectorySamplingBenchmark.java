@@ -0,0 +1,79 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+
+package frc.robot.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.wpilibj.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
+import frc.robot.Constants;
+import frc.robot.subsystems.chassis.trajectory.TrajectorySampler;
+
+/**
+ * ns/op of {@link Trajectory#sample(double)} against {@link TrajectorySampler#sample(double)}.
+ *
+ * <p>Times step through the whole trajectory, 1000 per pass, like a follower does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectorySamplingBenchmark {
+  private static final int STEPS = 1000;
+
+  @Param({Constants.Trajectory.OneMeter, Constants.Trajectory.two, Constants.Trajectory.three})
+  public String path;
+
+  private Trajectory trajectory;
+  private TrajectorySampler sampler;
+  private double step;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    // "gradlew jmh" runs from the project directory
+    trajectory = TrajectoryUtil.fromPathweaverJson(Paths.get("src/main/deploy", path));
+    sampler    = new TrajectorySampler(trajectory);
+    step       = trajectory.getTotalTimeSeconds() / (STEPS - 1);
+  }
+
+  private double next() {
+    index = (index + 1) % STEPS;
+    return index * step;
+  }
+
+  @Benchmark
+  public void list(Blackhole blackhole) {
+    blackhole.consume(trajectory.sample(next()).velocityMetersPerSecond);
+  }
+
+  @Benchmark
+  public void table(Blackhole blackhole) {
+    sampler.sample(next());
+    blackhole.consume(sampler.getVelocity());
+  }
+}
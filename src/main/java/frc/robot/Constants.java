@@ -20,6 +20,7 @@ public final class Constants {
         public static final String three    = "output/ThreeBall.wpilib.json";
         public static final String two      = "output/TwoBall.wpilib.json";
         public static final String OneMeter = "output/OneMeter.wpilib.json";
+        public static final String[] all    = {three, two, OneMeter};
     }
     public static class Motor{
         public static final int leftMaster    = 19;
@@ -28,12 +29,137 @@ public final class Constants {
         public static final int rightFollower = 20;
         public static final double distancePerPulse = 0.1524 * Math.PI / 2048 / 9.7;
         public static final double wheelPitch = 0.7407;
+        // drivetrain feedforward, volts / (m/s) / (m/s^2)
+        public static final double kS = 0.04;
+        public static final double kV = 2.23;
+        public static final double kA = 0.007;
+        // Talon velocity loop, slot 0
+        public static final double velocity_kP = 0.0506;
+        public static final double velocity_kF = 0.07;
+        public static final float  voltageCompSaturation = 10;
+        // Talon slots: trajectory velocity with kF, teleop velocity with arbitrary feedforward
+        public static final int    trajectorySlot     = 0;
+        public static final int    teleopVelocitySlot = 1;
+        // full stick in closed-loop teleop, under the ~4.5 m/s that 10V of compensation can reach
+        public static final double teleopMaxVelocity  = 4.0;
+        // 200Hz, encoder feedback frames and navX are sped up to match
+        public static final double odometryPeriod = 0.005;
+        public static final int    feedbackFramePeriodMs = 5;
+        public static final int    gyroUpdateRateHz = 200;
+        // about 2.5 seconds of poses at the odometry rate
+        public static final int    poseHistorySize = 512;
 
         public static final boolean isRightMotorInvert = true;
         public static final boolean isLeftMotorInvert = false;
         public static final boolean isRightPhaseInvert = true;
         public static final boolean isLeftPhaseInvert = false;
     }
+    public static class Characterization{
+        public static final String fileName = "characterization.properties";
+        // 200Hz
+        public static final double period   = 0.005;
+        // a test ends at its time limit or once the robot has moved maxDistance (m), whichever comes first
+        public static final double quasistaticSeconds = 12;
+        public static final double dynamicSeconds     = 2.5;
+        public static final double trackWidthSeconds  = 6;
+        public static final double maxDistance        = 3;
+        // room for the longest test
+        public static final int    capacity = (int) Math.ceil(quasistaticSeconds / period) + 1;
+        public static final double quasistaticRampVoltsPerSecond = 0.25;
+        public static final double dynamicStepVolts              = 6;
+        public static final double trackWidthVolts               = 3;
+        // samples slower than this (m/s) are stiction, not used by the fit
+        public static final double minVelocity = 0.05;
+        // acceleration is the velocity difference over this many samples
+        public static final int    accelerationWindow = 4;
+    }
+    public static class HeadingHold{
+        // runs at the navX update rate
+        public static final double period = 1.0 / Motor.gyroUpdateRateHz;
+        // rotation output per degree of heading error, per deg/s of yaw rate
+        public static final double kP = 0.02;
+        public static final double kD = 0.0015;
+        public static final double maxCorrection = 0.3;
+        // the heading is latched once the robot has stopped turning, deg/s
+        public static final double settleRate = 5;
+    }
+    public static class AutoAim{
+        // drive to pose, distance along the heading
+        public static final double distance_kP      = 2.0;
+        public static final double maxVelocity      = 2.0;
+        public static final double maxAcceleration  = 2.0;
+        // heading, radians
+        public static final double heading_kP       = 4.0;
+        public static final double maxAngularVelocity     = Math.PI;
+        public static final double maxAngularAcceleration = 2 * Math.PI;
+        // closer than this only the final heading is controlled
+        public static final double turnInPlaceDistance = 0.2;
+        public static final double positionTolerance   = 0.05;
+        public static final double angleToleranceDeg   = 2;
+        // scoring position in odometry coordinates, the origin is where the last auto started
+        public static final double scoringX          = 3.0;
+        public static final double scoringY          = 0;
+        public static final double scoringHeadingDeg = 0;
+    }
+    public static class Power{
+        // roboRIO browns out at 6.8V
+        public static final double lowVoltage      = 9.0;
+        public static final double criticalVoltage = 7.5;
+        public static final double voltageHysteresis = 0.5;
+        // total PDP current that counts as a low voltage level on its own, amps
+        public static final double highTotalCurrent = 300;
+        // a lower level is only taken back after this long, seconds
+        public static final double relaxDelay = 0.5;
+        // drivetrain budget per level, supply current limit per Falcon in amps
+        public static final double normalMaxOutput     = 1.0;
+        public static final double normalDriveCurrent  = 60;
+        public static final double lowMaxOutput        = 0.8;
+        public static final double lowDriveCurrent     = 40;
+        public static final double criticalMaxOutput   = 0.5;
+        public static final double criticalDriveCurrent = 25;
+        // the shooter comes first while it's spinning
+        public static final double shootingMaxOutput   = 0.8;
+        public static final double shootingDriveCurrent = 40;
+    }
+    public static class Actuator{
+        // unchanged outputs are still sent this often, motor safety expires after 0.1s
+        public static final double keepAlive       = 0.05;
+        // smaller changes aren't sent
+        public static final double percentEpsilon  = 1e-3;
+        // native units per 100ms
+        public static final double velocityEpsilon = 1;
+    }
+    public static class CanMonitor{
+        // seconds between bus samples, and between dashboard updates
+        public static final double samplePeriod  = 0.1;
+        public static final double publishPeriod = 1.0;
+        // samples in the rolling average and peak, 5 seconds
+        public static final int    window        = 50;
+        // average bus utilization that raises the alert, and how far it has to drop to clear it
+        public static final double alertUtilization = 0.7;
+        public static final double alertHysteresis  = 0.1;
+    }
+    public static class Health{
+        // sampling thread, seconds
+        public static final double period = 0.01;
+        // samples in the ring buffers, 0.5 seconds
+        public static final int    window = 50;
+        // stall: average stator current and output over the window, peak velocity (native units)
+        public static final double stallCurrent  = 30;
+        public static final double stallOutput   = 0.1;
+        public static final double stallVelocity = 100;
+        // sensor: driven and drawing current, but the encoder never moves
+        public static final double sensorOutput  = 0.3;
+        public static final double sensorCurrent = 2;
+        // temperature, °C, one sample per second for the trend
+        public static final double maxTemperature   = 80;
+        public static final double trendTemperature = 50;
+        public static final double thermalHorizon   = 30;
+        public static final int    thermalWindow    = 10;
+        // derated output, and how long an action stays after the fault clears, seconds
+        public static final double derate   = 0.5;
+        public static final double holdTime = 2;
+    }
     public static class PowCon{
         public static final int flywheel = 4;
         public static final int conveyor = 1;
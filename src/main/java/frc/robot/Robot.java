@@ -13,8 +13,15 @@ import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
-import frc.robot.subsystems.chassis.ControlDrivetrain;
-import frc.robot.subsystems.chassis.trajectory.TrajectoryDrivetrain;
+import frc.robot.commands.auto.AutoChooser;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CanLoad;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorHealth;
+import frc.robot.sensor.SensorFrame;
+import frc.robot.subsystems.chassis.Drivetrain;
+import frc.robot.subsystems.chassis.characterization.DriveCharacteristics;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryRegistry;
 import edu.wpi.first.wpilibj.Compressor;
 
 
@@ -26,10 +33,9 @@ import edu.wpi.first.wpilibj.Compressor;
  */
 public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
-  public static TrajectoryDrivetrain trajectoryDrivetrain = new TrajectoryDrivetrain();
-  public static ControlDrivetrain    controlDrivetrain    = new ControlDrivetrain();
   // public static Compressor c =new Compressor();
   private RobotContainer m_robotContainer;
+  private Drivetrain m_drivetrain;
 
   /**
    * This function is run when the robot is first started up and should be used for any
@@ -37,9 +43,24 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotInit() {
+    long start = System.nanoTime();
+    // Start parsing trajectories in the background while the subsystems are being configured.
+    TrajectoryRegistry.preload(Constants.Trajectory.all);
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     m_robotContainer = new RobotContainer();
+    m_drivetrain = m_robotContainer.getDrivetrain();
+    // Motors have been configuring in the background since the subsystems were built
+    MotorBatch.join();
+    m_drivetrain.start();
+    MotorHealth.start();
+    double robotInitMs = (System.nanoTime() - start) / 1e6;
+    SmartDashboard.putNumber("robotInit ms", robotInitMs);
+    System.out.printf("robotInit took %.1f ms%n", robotInitMs);
+    TrajectoryRegistry.report();
+    MotorBatch.report();
+    CanLoad.report();
+    SmartDashboard.putString("Drive characteristics", DriveCharacteristics.get().source);
   }
 
   /**
@@ -55,7 +76,18 @@ public class Robot extends TimedRobot {
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
-    CommandScheduler.getInstance().run();
+    // every sensor once, everything this loop reads the same snapshot
+    SensorFrame.sample();
+    long start = System.nanoTime();
+    synchronized (AutoChooser.commandLock) {
+      CommandScheduler.getInstance().run();
+    }
+    SmartDashboard.putNumber("Scheduler ms", (System.nanoTime() - start) / 1e6);
+    // one output per drive master, whatever ran this loop
+    m_drivetrain.commit();
+    // derate or stop what the health monitor found, then only the outputs that changed go out
+    MotorHealth.apply();
+    ActuatorTable.commit();
   }
 
   /**
@@ -63,12 +95,13 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void disabledInit() {
-
+    TrajectoryRegistry.preload(Constants.Trajectory.all);
   }
 
   @Override
   public void disabledPeriodic() {
     // System.out.println("disable");
+    m_robotContainer.prepareAutonomousCommand();
   }
 
   /**
@@ -80,7 +113,9 @@ public class Robot extends TimedRobot {
 
     // schedule the autonomous command (example)
     if (m_autonomousCommand != null) {
-      m_autonomousCommand.schedule();
+      synchronized (AutoChooser.commandLock) {
+        m_autonomousCommand.schedule();
+      }
     }
   }
 
@@ -12,24 +12,37 @@ import edu.wpi.first.wpilibj.GenericHID;
 import edu.wpi.first.wpilibj.Joystick;
 import edu.wpi.first.wpilibj.Sendable;
 import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
+import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.RunCommand;
 import edu.wpi.first.wpilibj2.command.button.JoystickButton;
 import frc.robot.Constants.Button;
 import frc.robot.commands.Shoot.SpinForward;
 import frc.robot.commands.Shoot.SpinReverse;
 import frc.robot.commands.arm.ArmIn;
 import frc.robot.commands.arm.ArmOut;
+import frc.robot.commands.auto.AutoChooser;
 import frc.robot.commands.auto.LeftDown;
 import frc.robot.commands.auto.LeftUp;
 import frc.robot.commands.auto.OneMeter;
 import frc.robot.commands.auto.TempOneMeter;
 import frc.robot.commands.auto.TestCommand;
+import frc.robot.commands.characterization.CharacterizeDrivetrain;
+import frc.robot.commands.drive.DriveToPose;
+import frc.robot.commands.drive.TeleopDrive;
+import frc.robot.input.DriverProfile;
+import frc.robot.subsystems.CanMonitor;
 import frc.robot.subsystems.Intake;
-import frc.robot.subsystems.chassis.ControlDrivetrain;
+import frc.robot.subsystems.PowerManager;
+import frc.robot.subsystems.chassis.Drivetrain;
+import frc.robot.subsystems.chassis.Drivetrain.Mode;
+import frc.robot.subsystems.chassis.characterization.CharacterizationDrivetrain.Test;
 import frc.robot.subsystems.pneumatic.Arm;
 import frc.robot.subsystems.shooter.Conveyor;
 import frc.robot.subsystems.shooter.Shooter;
@@ -51,8 +64,17 @@ public class RobotContainer {
   private final Wing              m_wing                          = new Wing();
   private final Joystick          joystick                        = new Joystick(0);
   private final Joystick          driverStation                   = new Joystick(1);
-  public static ControlDrivetrain controlDrivetrain               = new ControlDrivetrain();
-  private       SendableChooser<Command>    chooser               = new SendableChooser<Command>();
+  // The only drivetrain, teleop, trajectories and characterization are modes of it
+  private final Drivetrain        drivetrain                      = new Drivetrain();
+  private final PowerManager      m_power                         = new PowerManager(m_shooter, drivetrain);
+  private final CanMonitor        m_can                           = new CanMonitor();
+  private final AutoChooser       chooser                         = new AutoChooser();
+  private final SendableChooser<Mode> driveMode                  = new SendableChooser<Mode>();
+  private final SendableChooser<DriverProfile> driverProfile     = new SendableChooser<DriverProfile>();
+  private final NetworkTableEntry headingHold                     = Shuffleboard.getTab("Auto")
+                                                                    .add("Heading hold", true)
+                                                                    .withWidget(BuiltInWidgets.kToggleButton)
+                                                                    .getEntry();
   // The robot's subsystems and commands are defined here...
   private Compressor c = new Compressor();
   /**
@@ -64,14 +86,38 @@ public class RobotContainer {
     //MusicDrivetrain.start("noise.chrp");
     configureButtonBindings();
 
-    chooser.addOption("Left Up",          new LeftUp(Robot.trajectoryDrivetrain));
-    chooser.addOption("Left Down ",       new LeftDown(Robot.trajectoryDrivetrain));
-    chooser.addOption("TempOneMeter",     new TempOneMeter(Robot.trajectoryDrivetrain));
-    chooser.addOption("Test",             new TestCommand(Robot.trajectoryDrivetrain));
-    chooser.setDefaultOption("One Meter", new OneMeter(Robot.trajectoryDrivetrain));
+    // Only the selected auto gets built, see AutoChooser
+    chooser.addOption("Left Up",          ()->new LeftUp(drivetrain),       Constants.Trajectory.three);
+    chooser.addOption("Left Down ",       ()->new LeftDown(drivetrain),     Constants.Trajectory.two);
+    chooser.addOption("TempOneMeter",     ()->new TempOneMeter(drivetrain), Constants.Trajectory.OneMeter);
+    chooser.addOption("Test",             ()->new TestCommand(drivetrain));
+    chooser.setDefaultOption("One Meter", ()->new OneMeter(drivetrain),     Constants.Trajectory.OneMeter);
     
-    Shuffleboard.getTab("Auto").add(chooser);
+    Shuffleboard.getTab("Auto").add(chooser.getChooser());
 
+    driveMode.setDefaultOption("Percent output", Mode.OPEN_LOOP);
+    driveMode.addOption("Velocity",              Mode.CLOSED_LOOP);
+    Shuffleboard.getTab("Auto").add("Drive mode", driveMode);
+
+    driverProfile.setDefaultOption(DriverProfile.DEFAULT.name, DriverProfile.DEFAULT);
+    driverProfile.addOption(DriverProfile.SMOOTH.name,         DriverProfile.SMOOTH);
+    driverProfile.addOption(DriverProfile.RAW.name,            DriverProfile.RAW);
+    Shuffleboard.getTab("Auto").add("Driver profile", driverProfile);
+
+    characterization();
+  }
+  /**
+   * Characterization tests, run them all then save, the result is used after the next boot.
+   */
+  private void characterization(){
+    ShuffleboardTab tab = Shuffleboard.getTab("Characterization");
+    tab.add("Quasistatic forward",  new CharacterizeDrivetrain(drivetrain, Test.QUASISTATIC,  1));
+    tab.add("Quasistatic backward", new CharacterizeDrivetrain(drivetrain, Test.QUASISTATIC, -1));
+    tab.add("Dynamic forward",      new CharacterizeDrivetrain(drivetrain, Test.DYNAMIC,      1));
+    tab.add("Dynamic backward",     new CharacterizeDrivetrain(drivetrain, Test.DYNAMIC,     -1));
+    tab.add("Track width",          new CharacterizeDrivetrain(drivetrain, Test.TRACK_WIDTH,  1));
+    tab.add("Reset fit",            new InstantCommand(drivetrain.characterization()::resetFit, drivetrain));
+    tab.add("Save",                 new InstantCommand(drivetrain.characterization()::save, drivetrain));
   }
   /**
    * Use this method to define your button->command mappings.  Buttons can be created by
@@ -102,30 +148,43 @@ public class RobotContainer {
     new JoystickButton(driverStation, Button.armOut)        .whenHeld(new ArmOut(m_arm));
     new JoystickButton(driverStation, Button.armIn)         .whenHeld(new ArmIn(m_arm));
     new JoystickButton(driverStation, Button.intake)        .whenHeld(new SpinForward(m_intake));
+    new JoystickButton(driverStation, Button.autoAim)       .whenHeld(new DriveToPose(drivetrain,
+                                                                        new Pose2d(Constants.AutoAim.scoringX,
+                                                                                   Constants.AutoAim.scoringY,
+                                                                                   Rotation2d.fromDegrees(Constants.AutoAim.scoringHeadingDeg))));
   }
   /**
    * Teleop control
    */
   private void teleop(){
-    controlDrivetrain.setDefaultCommand(
-      new RunCommand(
-        ()->Robot.controlDrivetrain
-                .curvatureDrive(joystick.getY() * 0.5, joystick.getZ() * 0.5, joystick.getTrigger()), 
-          controlDrivetrain)
-      );
+    drivetrain.setDefaultCommand(new TeleopDrive(drivetrain, joystick, driveMode, driverProfile,
+                                                        ()->headingHold.getBoolean(true)));
       
       //controlDrivetrain.drive(joystick.getRawAxis(1) * -0.2, joystick.getRawAxis(0) * 0.1), controlDrivetrain)
 
   }
 
 
+  /**
+   * @return the drivetrain, {@link Robot} starts it and commits its outputs every loop
+   */
+  public Drivetrain getDrivetrain() {
+    return drivetrain;
+  }
+
   /**
    * Use this to pass the autonomous command to the main {@link Robot} class.
    *
    * @return the command to run in autonomous
    */
   public Command getAutonomousCommand() {
-    // An ExampleCommand will run in autonomous
     return chooser.getSelected();
   }
+
+  /**
+   * Build the selected auto in the background, call it while disabled.
+   */
+  public void prepareAutonomousCommand() {
+    chooser.update();
+  }
 }
@@ -0,0 +1,163 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.commands.auto;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryRegistry;
+
+/**
+ * Auto chooser that holds how to build each routine instead of the routines.
+ * Only the selected routine is built, on a background thread while disabled, and rebuilt when the
+ * selection changes, so {@link #getSelected()} in autonomousInit returns a command that is already built.
+ *
+ * <p>The command framework isn't thread safe (e.g. command groups register themselves in a static set the
+ * scheduler reads), so the robot loop holds {@link #commandLock} while it runs the scheduler, and the
+ * builder holds it only while constructing. Trajectories a routine declares are loaded before that,
+ * outside the lock.
+ */
+public class AutoChooser {
+  /** Held while touching the command framework from more than one thread */
+  public static final Object commandLock = new Object();
+
+  private static final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "AutoBuilder");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  private final SendableChooser<Supplier<Command>> chooser = new SendableChooser<>();
+  private final Map<Supplier<Command>, String>   names     = new IdentityHashMap<>();
+  private final Map<Supplier<Command>, String[]> mapPaths  = new IdentityHashMap<>();
+
+  // Only touched by the robot loop
+  private Supplier<Command> selected;
+  private CompletableFuture<Command> built;
+  // Newest selection, the builder skips requests that are already stale
+  private volatile Supplier<Command> latest;
+
+  /**
+   * Add a routine.
+   *
+   * @param name         name on the dashboard
+   * @param routine      builds the routine
+   * @param trajectories PathWeaver outputs it follows, loaded before it's built
+   */
+  public void addOption(String name, Supplier<Command> routine, String... trajectories) {
+    names.put(routine, name);
+    mapPaths.put(routine, trajectories);
+    chooser.addOption(name, routine);
+  }
+
+  /**
+   * Add the routine selected by default.
+   *
+   * @param name         name on the dashboard
+   * @param routine      builds the routine
+   * @param trajectories PathWeaver outputs it follows, loaded before it's built
+   */
+  public void setDefaultOption(String name, Supplier<Command> routine, String... trajectories) {
+    names.put(routine, name);
+    mapPaths.put(routine, trajectories);
+    chooser.setDefaultOption(name, routine);
+  }
+
+  /**
+   * @return chooser to put on the dashboard
+   */
+  public SendableChooser<Supplier<Command>> getChooser() {
+    return chooser;
+  }
+
+  /**
+   * Start building the selected routine if the selection changed, call it every disabled loop.
+   */
+  public void update() {
+    Supplier<Command> routine = chooser.getSelected();
+    if (routine == null || routine == selected) {
+      return;
+    }
+    selected = routine;
+    latest   = routine;
+    SmartDashboard.putBoolean("Auto/ready", false);
+    built = CompletableFuture.supplyAsync(() -> {
+      for (String mapPath : mapPaths.get(routine)) {
+        if (latest != routine) {
+          return null;
+        }
+        TrajectoryRegistry.getSampler(mapPath);
+      }
+      if (latest != routine) {
+        return null;
+      }
+      long start = System.nanoTime();
+      Command command;
+      synchronized (commandLock) {
+        command = routine.get();
+      }
+      double buildMs = (System.nanoTime() - start) / 1e6;
+      SmartDashboard.putNumber("Auto/build ms", buildMs);
+      SmartDashboard.putBoolean("Auto/ready", true);
+      System.out.printf("Auto %s built in the background in %.1f ms%n", names.get(routine), buildMs);
+      return command;
+    }, builder);
+  }
+
+  /**
+   * Returns the selected routine. It's already built unless the selection changed right before
+   * this call or the background build failed, then it's built here.
+   *
+   * @return the command to run in autonomous, null for no auto if it can't be built at all
+   */
+  public Command getSelected() {
+    update();
+    if (selected == null) {
+      return null;
+    }
+    long start = System.nanoTime();
+    Command command = null;
+    if (built.isDone()) {
+      try {
+        command = built.join();
+      } catch (CompletionException ex) {
+        Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+        DriverStation.reportError("Auto " + names.get(selected) + " failed to build in the background: " + cause,
+                                  cause.getStackTrace());
+      }
+    }
+    if (command == null) {
+      // Not ready yet or failed: stop the builder from racing this thread and build here.
+      latest = null;
+      try {
+        synchronized (commandLock) {
+          command = selected.get();
+        }
+      } catch (RuntimeException ex) {
+        DriverStation.reportError("Auto " + names.get(selected) + " failed to build, no auto: " + ex,
+                                  ex.getStackTrace());
+      }
+      built = CompletableFuture.completedFuture(command);
+      latest = selected;
+    }
+    double waitMs = (System.nanoTime() - start) / 1e6;
+    SmartDashboard.putNumber("Auto/autonomousInit ms", waitMs);
+    System.out.printf("Auto %s ready after %.2f ms in autonomousInit%n", names.get(selected), waitMs);
+    return command;
+  }
+}
@@ -24,9 +24,8 @@ public class LeftDown extends SequentialCommandGroup {
     // Add your commands in the super() call, e.g.
     // super(new FooCommand(), new BarCommand());
     super(
-      new InstantCommand(()-> TrajectoryFactory.getTrajectory(Constants.Trajectory.two)),
-      new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain)),
-      new TrajectoryCommand(TrajectoryFactory.getTrajectory(Constants.Trajectory.two), drivetrain)
+      new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain, Constants.Trajectory.two)),
+      new TrajectoryCommand(Constants.Trajectory.two, drivetrain)
             .andThen(()->drivetrain.setOutput(0, 0)),
       new InstantCommand(()-> drivetrain.setOutput(0, 0)
       )
@@ -25,9 +25,8 @@ public class LeftUp extends SequentialCommandGroup {
     // Add your commands in the super() call, e.g.
     // super(new FooCommand(), new BarCommand());
     super(
-      new InstantCommand(()-> TrajectoryFactory.getTrajectory(Constants.Trajectory.three)),
-      new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain)),
-      new TrajectoryCommand(TrajectoryFactory.getTrajectory(Constants.Trajectory.three), drivetrain)
+      new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain, Constants.Trajectory.three)),
+      new TrajectoryCommand(Constants.Trajectory.three, drivetrain)
             .andThen(()->drivetrain.setOutput(0, 0)),
       new InstantCommand(()-> drivetrain.setOutput(0, 0)
       )
@@ -23,9 +23,8 @@ public class OneMeter extends SequentialCommandGroup {
   public OneMeter(TrajectorySystem drivetrain) {
     // Add your commands in the super() call, e.g.
     // super(new FooCommand(), new BarCommand());
-    super(  new InstantCommand(()-> TrajectoryFactory.getTrajectory(Constants.Trajectory.OneMeter)),
-            new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain)),
-            new TrajectoryCommand(TrajectoryFactory.getTrajectory(Constants.Trajectory.OneMeter), drivetrain)
+    super(  new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain, Constants.Trajectory.OneMeter)),
+            new TrajectoryCommand(Constants.Trajectory.OneMeter, drivetrain)
                   .andThen(()->drivetrain.setOutput(0, 0)),
             new InstantCommand(()-> drivetrain.setOutput(0, 0)));
   }
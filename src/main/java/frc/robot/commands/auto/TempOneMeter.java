@@ -7,9 +7,7 @@
 
 package frc.robot.commands.auto;
 
-import edu.wpi.first.wpilibj.controller.RamseteController;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.RamseteCommand;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import frc.robot.Constants;
 import frc.robot.subsystems.chassis.trajectory.TrajectoryFactory;
@@ -24,19 +22,8 @@ public class TempOneMeter extends SequentialCommandGroup {
    */
   public TempOneMeter(TrajectorySystem drivetrain) {
     super(
-      new InstantCommand(()-> TrajectoryFactory.getTrajectory(Constants.Trajectory.OneMeter)),
-      new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain)),
-      new RamseteCommand(
-        TrajectoryFactory.getTrajectory(Constants.Trajectory.OneMeter), 
-        drivetrain::getPose, 
-        new RamseteController(20.0, 0.9), 
-        // drivetrain.getFeedforward(),
-        drivetrain.getKinematics(), 
-        // drivetrain::getSpeed,
-        // drivetrain.getLeftPidController(),
-        // drivetrain.getRightPidController(),
-        drivetrain::setOutput, 
-        drivetrain)
+      new InstantCommand(()-> TrajectoryFactory.initPose(drivetrain, Constants.Trajectory.OneMeter)),
+      new TrajectoryCommand(Constants.Trajectory.OneMeter, drivetrain, 20.0, 0.9)
             .andThen(()->drivetrain.setOutput(0, 0)),
       new InstantCommand(()-> drivetrain.setOutput(0, 0)));
   }
@@ -7,23 +7,156 @@
 
 package frc.robot.commands.auto;
 
-import edu.wpi.first.wpilibj.controller.RamseteController;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
 import edu.wpi.first.wpilibj.trajectory.Trajectory;
 
-import edu.wpi.first.wpilibj2.command.RamseteCommand;
+import edu.wpi.first.wpilibj2.command.CommandBase;
 
+import frc.robot.subsystems.chassis.trajectory.TrackingRecorder;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryRegistry;
+import frc.robot.subsystems.chassis.trajectory.TrajectorySampler;
 import frc.robot.subsystems.chassis.trajectory.TrajectorySystem;
 /**
- * Add your docs here.
+ * Ramsete follower, same control law as {@link edu.wpi.first.wpilibj.controller.RamseteController},
+ * but the reference comes from a {@link TrajectorySampler} instead of {@link Trajectory#sample(double)},
+ * so a cycle doesn't search the state list or allocate states.
  */
-public class TrajectoryCommand extends RamseteCommand{
+public class TrajectoryCommand extends CommandBase{
+  public static final double kDefaultB    = 18.0;
+  public static final double kDefaultZeta = 0.95;
+
+  private final TrajectorySampler sampler;
+  private final TrajectorySystem  drivetrain;
+  private final double b;
+  private final double zeta;
+  private final double halfTrackWidth;
+  private double startTime;
+  private final TrackingRecorder recorder;
+
   public TrajectoryCommand(Trajectory trajectory, TrajectorySystem drivetrain){
-    super(trajectory, 
-          drivetrain::getPose, 
-          new RamseteController(18.0, 0.95), 
-          drivetrain.getKinematics(), 
-          drivetrain::setOutput, 
-          drivetrain
-         );
+    this(trajectory, drivetrain, kDefaultB, kDefaultZeta);
+  }
+
+  public TrajectoryCommand(String mapPath, TrajectorySystem drivetrain){
+    this(mapPath, drivetrain, kDefaultB, kDefaultZeta);
+  }
+
+  /**
+   * @param mapPath    PathWeaver output, loaded from {@link TrajectoryRegistry}
+   * @param drivetrain drivetrain
+   * @param b          Ramsete b, larger is more aggressive
+   * @param zeta       Ramsete zeta, larger is more damping
+   */
+  public TrajectoryCommand(String mapPath, TrajectorySystem drivetrain, double b, double zeta){
+    this(TrajectoryRegistry.getSampler(mapPath), nameOf(mapPath), drivetrain, b, zeta);
+  }
+
+  /**
+   * @param trajectory trajectory to follow
+   * @param drivetrain drivetrain
+   * @param b          Ramsete b, larger is more aggressive
+   * @param zeta       Ramsete zeta, larger is more damping
+   */
+  public TrajectoryCommand(Trajectory trajectory, TrajectorySystem drivetrain, double b, double zeta){
+    this(trajectory, "trajectory", drivetrain, b, zeta);
+  }
+
+  private TrajectoryCommand(Trajectory trajectory, String name, TrajectorySystem drivetrain, double b, double zeta){
+    this(new TrajectorySampler(trajectory), name, drivetrain, b, zeta);
+  }
+
+  /**
+   * @param sampler    sampled trajectory, not shared with other commands
+   * @param name       name of the tracking log
+   * @param drivetrain drivetrain
+   * @param b          Ramsete b, larger is more aggressive
+   * @param zeta       Ramsete zeta, larger is more damping
+   */
+  public TrajectoryCommand(TrajectorySampler sampler, String name, TrajectorySystem drivetrain, double b, double zeta){
+    this.sampler        = sampler;
+    this.drivetrain     = drivetrain;
+    this.b              = b;
+    this.zeta           = zeta;
+    this.halfTrackWidth = drivetrain.getKinematics().trackWidthMeters / 2;
+    // 50Hz for the whole path, plus some slack in case the command is late to finish
+    this.recorder       = new TrackingRecorder(name, b, zeta, (int) (sampler.getTotalTimeSeconds() / 0.02) + 100);
+    addRequirements(drivetrain);
+  }
+
+  /**
+   * "output/TwoBall.wpilib.json" to "TwoBall"
+   */
+  private static String nameOf(String mapPath) {
+    String name = mapPath.substring(mapPath.lastIndexOf('/') + 1);
+    int dot = name.indexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
+  }
+
+  /**
+   * Returns what was recorded in the latest run
+   * 
+   * @return recorder
+   */
+  public TrackingRecorder getRecorder() {
+    return recorder;
+  }
+
+  @Override
+  public void initialize() {
+    recorder.reset();
+    startTime = drivetrain.getTimestamp();
+  }
+
+  @Override
+  public void execute() {
+    double time = drivetrain.getTimestamp() - startTime;
+    sampler.sample(time);
+
+    Pose2d pose = drivetrain.getPose();
+    Rotation2d rotation = pose.getRotation();
+    double cos = rotation.getCos();
+    double sin = rotation.getSin();
+    double dx  = sampler.getX() - pose.getTranslation().getX();
+    double dy  = sampler.getY() - pose.getTranslation().getY();
+
+    // error in robot frame
+    double errorX     = cos * dx + sin * dy;
+    double errorY     = -sin * dx + cos * dy;
+    double errorTheta = TrajectorySampler.wrap(sampler.getHeading() - rotation.getRadians());
+
+    double velocityRef = sampler.getVelocity();
+    double omegaRef    = velocityRef * sampler.getCurvature();
+    double k = 2.0 * zeta * Math.sqrt(omegaRef * omegaRef + b * velocityRef * velocityRef);
+
+    double velocity = velocityRef * Math.cos(errorTheta) + k * errorX;
+    double omega    = omegaRef + k * errorTheta + b * velocityRef * sinc(errorTheta) * errorY;
+
+    double left  = velocity - omega * halfTrackWidth;
+    double right = velocity + omega * halfTrackWidth;
+    drivetrain.setOutput(left, right);
+
+    DifferentialDriveWheelSpeeds speed = drivetrain.getSpeed();
+    recorder.record(time, sampler.getX(), sampler.getY(), sampler.getHeading(), velocityRef,
+                    pose.getTranslation().getX(), pose.getTranslation().getY(), rotation.getRadians(),
+                    left, right, speed.leftMetersPerSecond, speed.rightMetersPerSecond);
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    recorder.flush();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return drivetrain.getTimestamp() - startTime >= sampler.getTotalTimeSeconds();
+  }
+
+  private static double sinc(double x) {
+    if (Math.abs(x) < 1e-9) {
+      return 1.0 - x * x / 6.0;
+    }
+    return Math.sin(x) / x;
   }
 }
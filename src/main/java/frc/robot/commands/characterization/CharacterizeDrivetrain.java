@@ -0,0 +1,57 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.commands.characterization;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.subsystems.chassis.Drivetrain;
+import frc.robot.subsystems.chassis.Drivetrain.Mode;
+import frc.robot.subsystems.chassis.characterization.CharacterizationDrivetrain.Test;
+
+/**
+ * Runs one characterization test until its time or distance limit or until the command is cancelled,
+ * see {@link frc.robot.Constants.Characterization}. Give the robot at least maxDistance of room.
+ */
+public class CharacterizeDrivetrain extends CommandBase {
+  private final Drivetrain drivetrain;
+  private final Test   test;
+  private final double direction;
+
+  /**
+   * Creates a new CharacterizeDrivetrain.
+   *
+   * @param drivetrain drivetrain
+   * @param test       voltage profile
+   * @param direction  1 forward, -1 backward
+   */
+  public CharacterizeDrivetrain(Drivetrain drivetrain, Test test, double direction) {
+    this.drivetrain = drivetrain;
+    this.test       = test;
+    this.direction  = direction;
+    addRequirements(drivetrain);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    drivetrain.setMode(Mode.CHARACTERIZATION);
+    drivetrain.characterization().start(test, direction);
+  }
+
+  // Called once the command ends or is interrupted.
+  @Override
+  public void end(boolean interrupted) {
+    drivetrain.characterization().stop();
+    drivetrain.characterization().message();
+  }
+
+  // Returns true when the command should end.
+  @Override
+  public boolean isFinished() {
+    return drivetrain.characterization().isDone();
+  }
+}
@@ -0,0 +1,131 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.commands.drive;
+
+import edu.wpi.first.wpilibj.controller.ProfiledPIDController;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.wpilibj.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.Constants;
+import frc.robot.subsystems.chassis.trajectory.TrajectorySystem;
+
+/**
+ * Drives from the current odometry pose to a target pose without a pre-generated path.
+ * Points at the target and profiles the distance to it, then turns to the target heading when close.
+ * Drives backward if the target starts out behind the robot.
+ *
+ * <p>Inside {@link Constants.AutoAim#turnInPlaceDistance} a sideways offset can't be driven out any more,
+ * so it ends once the distance left along the heading and the heading are within tolerance.
+ */
+public class DriveToPose extends CommandBase {
+  private final TrajectorySystem drivetrain;
+  private final Pose2d target;
+  private final ProfiledPIDController distanceController = new ProfiledPIDController(
+      Constants.AutoAim.distance_kP, 0, 0,
+      new TrapezoidProfile.Constraints(Constants.AutoAim.maxVelocity, Constants.AutoAim.maxAcceleration));
+  private final ProfiledPIDController headingController = new ProfiledPIDController(
+      Constants.AutoAim.heading_kP, 0, 0,
+      new TrapezoidProfile.Constraints(Constants.AutoAim.maxAngularVelocity, Constants.AutoAim.maxAngularAcceleration));
+  private final double targetX;
+  private final double targetY;
+  private final double targetHeading;
+  private boolean reversed;
+  private double distance;
+  private double alongError;
+  // heading without the jump at +-180 degrees, the profile would go the long way round otherwise
+  private double heading;
+
+  /**
+   * Creates a new DriveToPose.
+   *
+   * @param drivetrain drivetrain, odometry must already be running
+   * @param target     pose in odometry coordinates
+   */
+  public DriveToPose(TrajectorySystem drivetrain, Pose2d target) {
+    this.drivetrain    = drivetrain;
+    this.target        = target;
+    this.targetX       = target.getTranslation().getX();
+    this.targetY       = target.getTranslation().getY();
+    this.targetHeading = target.getRotation().getRadians();
+    addRequirements(drivetrain);
+  }
+
+  public Pose2d getTarget() {
+    return target;
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    Pose2d pose = drivetrain.getPose();
+    heading = pose.getRotation().getRadians();
+    double along = along(pose, heading);
+    reversed = along < 0;
+    distance = Double.POSITIVE_INFINITY;
+    alongError = Double.POSITIVE_INFINITY;
+    // start the profiles from how the robot is moving now, so taking over from teleop doesn't jerk
+    DifferentialDriveWheelSpeeds speed = drivetrain.getSpeed();
+    double trackWidth = drivetrain.getKinematics().trackWidthMeters;
+    distanceController.reset(-along, (speed.leftMetersPerSecond + speed.rightMetersPerSecond) / 2);
+    headingController.reset(heading, (speed.rightMetersPerSecond - speed.leftMetersPerSecond) / trackWidth);
+  }
+
+  // Called every time the scheduler runs while the command is scheduled.
+  @Override
+  public void execute() {
+    Pose2d pose = drivetrain.getPose();
+    heading += Math.IEEEremainder(pose.getRotation().getRadians() - heading, 2 * Math.PI);
+    double dx = targetX - pose.getTranslation().getX();
+    double dy = targetY - pose.getTranslation().getY();
+    distance = Math.hypot(dx, dy);
+
+    double goalHeading = targetHeading;
+    if (distance > Constants.AutoAim.turnInPlaceDistance) {
+      goalHeading = Math.atan2(dy, dx) + (reversed ? Math.PI : 0);
+    }
+
+    goalHeading = heading + Math.IEEEremainder(goalHeading - heading, 2 * Math.PI);
+
+    alongError = along(pose, heading);
+    // measured as minus the distance left, so the profile runs forward to 0
+    double velocity = distanceController.calculate(-alongError, 0)
+                    + distanceController.getSetpoint().velocity;
+    double angularVelocity = headingController.calculate(heading, goalHeading)
+                           + headingController.getSetpoint().velocity;
+    // don't drive off sideways while still turning toward the target
+    velocity *= Math.max(0, Math.cos(goalHeading - heading));
+
+    double halfTrack = drivetrain.getKinematics().trackWidthMeters / 2;
+    drivetrain.setOutput(velocity - angularVelocity * halfTrack, velocity + angularVelocity * halfTrack);
+  }
+
+  /**
+   * Signed distance to the target along the current heading.
+   */
+  private double along(Pose2d pose, double heading) {
+    return (targetX - pose.getTranslation().getX()) * Math.cos(heading)
+         + (targetY - pose.getTranslation().getY()) * Math.sin(heading);
+  }
+
+  // Called once the command ends or is interrupted.
+  @Override
+  public void end(boolean interrupted) {
+    drivetrain.setOutput(0, 0);
+  }
+
+  // Returns true when the command should end.
+  @Override
+  public boolean isFinished() {
+    double headingError = Math.abs(Math.IEEEremainder(targetHeading - heading, 2 * Math.PI));
+    // the sideways part of distance only shrinks while driving toward the target, not in place
+    return distance < Constants.AutoAim.turnInPlaceDistance
+        && Math.abs(alongError) < Constants.AutoAim.positionTolerance
+        && headingError < Math.toRadians(Constants.AutoAim.angleToleranceDeg);
+  }
+}
@@ -0,0 +1,93 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.commands.drive;
+
+import java.util.function.BooleanSupplier;
+
+import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.input.DriverProfile;
+import frc.robot.input.InputChain;
+import frc.robot.subsystems.chassis.Drivetrain;
+import frc.robot.subsystems.chassis.Drivetrain.Mode;
+
+/**
+ * Curvature drive from the joystick through the selected {@link DriverProfile}.
+ * Doesn't allocate unless the profile changes.
+ */
+public class TeleopDrive extends CommandBase {
+  private final Drivetrain drivetrain;
+  private final Joystick joystick;
+  private final SendableChooser<Mode> driveModes;
+  private final SendableChooser<DriverProfile> profiles;
+  private final BooleanSupplier headingHold;
+
+  private DriverProfile profile;
+  private InputChain throttle;
+  private InputChain rotation;
+  private double lastTime;
+
+  /**
+   * Creates a new TeleopDrive.
+   *
+   * @param drivetrain  drivetrain
+   * @param joystick    Y is throttle, Z is rotation, trigger is quick turn
+   * @param driveModes  {@link Mode#OPEN_LOOP} or {@link Mode#CLOSED_LOOP}
+   * @param profiles    input shaping
+   * @param headingHold keep the heading with the gyro while not turning
+   */
+  public TeleopDrive(Drivetrain drivetrain, Joystick joystick, SendableChooser<Mode> driveModes,
+                     SendableChooser<DriverProfile> profiles, BooleanSupplier headingHold) {
+    this.drivetrain = drivetrain;
+    this.joystick   = joystick;
+    this.driveModes = driveModes;
+    this.profiles   = profiles;
+    this.headingHold = headingHold;
+    setProfile(DriverProfile.DEFAULT);
+    addRequirements(drivetrain);
+  }
+
+  private void setProfile(DriverProfile selected) {
+    if (selected == null || selected == profile) {
+      return;
+    }
+    profile  = selected;
+    throttle = selected.throttle();
+    rotation = selected.rotation();
+    drivetrain.teleop().setDeadband(selected.driveDeadband);
+    SmartDashboard.putString("Driver profile", selected.name);
+  }
+
+  // Called when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    // start from rest, not from whatever was held before the robot was disabled
+    throttle.reset();
+    rotation.reset();
+    lastTime = Timer.getFPGATimestamp();
+  }
+
+  // Called every time the scheduler runs while the command is scheduled.
+  @Override
+  public void execute() {
+    double now = Timer.getFPGATimestamp();
+    double dt  = now - lastTime;
+    lastTime   = now;
+
+    setProfile(profiles.getSelected());
+    drivetrain.setMode(driveModes.getSelected());
+    drivetrain.teleop().setHeadingHold(headingHold.getAsBoolean());
+    drivetrain.teleop().curvatureDrive(throttle.calculate(joystick.getY(), dt),
+                              rotation.calculate(joystick.getZ(), dt),
+                              joystick.getTrigger());
+    drivetrain.teleop().recordCurrent(profile.isSlewLimited());
+  }
+}
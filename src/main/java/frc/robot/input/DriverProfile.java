@@ -0,0 +1,119 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How one driver likes the sticks shaped: deadband, expo, scale and slew limits per axis.
+ * Rates are in output units per second, after scaling.
+ */
+public final class DriverProfile {
+  /** What teleop did before shaping: scale only, deadband left to DifferentialDrive */
+  public static final DriverProfile RAW     = new DriverProfile("Raw",     0,    0,   0,   0.5, 0.5,
+                                                                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                                                                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                                                                0.08);
+  public static final DriverProfile DEFAULT = new DriverProfile("Default", 0.05, 0.3, 0.2, 0.5, 0.5,
+                                                                1.0, 2.0, 2.0, 4.0, 0);
+  public static final DriverProfile SMOOTH  = new DriverProfile("Smooth",  0.05, 0.5, 0.4, 0.5, 0.5,
+                                                                0.6, 1.2, 1.5, 3.0, 0);
+
+  public final String name;
+  public final double deadband;
+  public final double throttleExpo;
+  public final double rotationExpo;
+  public final double throttleScale;
+  public final double rotationScale;
+  public final double throttleAcceleration;
+  public final double throttleDeceleration;
+  public final double rotationAcceleration;
+  public final double rotationDeceleration;
+  /** deadband DifferentialDrive applies after the pipeline */
+  public final double driveDeadband;
+
+  /**
+   * Creates a new DriverProfile.
+   *
+   * @param name                 name on the dashboard
+   * @param deadband             stick deadband [0..1)
+   * @param throttleExpo         0 linear, 1 cubic
+   * @param rotationExpo         0 linear, 1 cubic
+   * @param throttleScale        gain after expo
+   * @param rotationScale        gain after expo
+   * @param throttleAcceleration units per second while the throttle grows, infinity for none
+   * @param throttleDeceleration units per second while the throttle shrinks, infinity for none
+   * @param rotationAcceleration units per second while the rotation grows, infinity for none
+   * @param rotationDeceleration units per second while the rotation shrinks, infinity for none
+   * @param driveDeadband        deadband of DifferentialDrive
+   */
+  public DriverProfile(String name, double deadband, double throttleExpo, double rotationExpo,
+                       double throttleScale, double rotationScale,
+                       double throttleAcceleration, double throttleDeceleration,
+                       double rotationAcceleration, double rotationDeceleration, double driveDeadband) {
+    this.name                 = name;
+    this.deadband             = deadband;
+    this.throttleExpo         = throttleExpo;
+    this.rotationExpo         = rotationExpo;
+    this.throttleScale        = throttleScale;
+    this.rotationScale        = rotationScale;
+    this.throttleAcceleration = throttleAcceleration;
+    this.throttleDeceleration = throttleDeceleration;
+    this.rotationAcceleration = rotationAcceleration;
+    this.rotationDeceleration = rotationDeceleration;
+    this.driveDeadband        = driveDeadband;
+  }
+
+  /**
+   * @return a new throttle pipeline, each one keeps its own slew state
+   */
+  public InputChain throttle() {
+    return chain(throttleExpo, throttleScale, throttleAcceleration, throttleDeceleration);
+  }
+
+  /**
+   * @return a new rotation pipeline, each one keeps its own slew state
+   */
+  public InputChain rotation() {
+    return chain(rotationExpo, rotationScale, rotationAcceleration, rotationDeceleration);
+  }
+
+  /**
+   * @return true if the outputs are rate limited
+   */
+  public boolean isSlewLimited() {
+    return Double.isFinite(throttleAcceleration) || Double.isFinite(throttleDeceleration)
+        || Double.isFinite(rotationAcceleration) || Double.isFinite(rotationDeceleration);
+  }
+
+  /**
+   * Only the stages that change something.
+   */
+  private InputChain chain(double expo, double scale, double acceleration, double deceleration) {
+    List<InputFilter> stages = new ArrayList<>();
+    if (deadband > 0) {
+      stages.add(InputFilter.deadband(deadband));
+    }
+    if (expo != 0) {
+      stages.add(InputFilter.expo(expo));
+    }
+    if (scale != 1) {
+      stages.add(InputFilter.scale(scale));
+    }
+    if (Double.isFinite(acceleration) || Double.isFinite(deceleration)) {
+      stages.add(new SlewLimiter(acceleration, deceleration));
+    }
+    return new InputChain(stages.toArray(new InputFilter[0]));
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
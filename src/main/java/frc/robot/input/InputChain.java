@@ -0,0 +1,46 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.input;
+
+/**
+ * Stages applied in order, e.g. deadband, expo, scale, slew limit.
+ */
+public class InputChain implements InputFilter {
+  private final InputFilter[] stages;
+
+  /**
+   * Creates a new InputChain.
+   *
+   * @param stages applied first to last, none passes the input through
+   */
+  public InputChain(InputFilter... stages) {
+    this.stages = stages.clone();
+  }
+
+  @Override
+  public double calculate(double value, double dt) {
+    for (InputFilter stage : stages) {
+      value = stage.calculate(value, dt);
+    }
+    return value;
+  }
+
+  @Override
+  public void reset() {
+    for (InputFilter stage : stages) {
+      stage.reset();
+    }
+  }
+
+  /**
+   * @return true if there is no stage
+   */
+  public boolean isEmpty() {
+    return stages.length == 0;
+  }
+}
@@ -0,0 +1,59 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.input;
+
+/**
+ * One stage of a driver input pipeline, see {@link InputChain}.
+ * Time is passed in instead of read from the FPGA, so stages run (and can be tested) without hardware.
+ */
+@FunctionalInterface
+public interface InputFilter {
+  /**
+   * Filter one sample, must not allocate.
+   *
+   * @param value input
+   * @param dt    seconds since the previous sample
+   * @return output
+   */
+  double calculate(double value, double dt);
+
+  /**
+   * Forget the history and continue from rest, e.g. when the robot is enabled.
+   */
+  default void reset() {
+  }
+
+  /**
+   * Zero inside the deadband, rescaled so the output is still continuous and reaches 1.
+   *
+   * @param deadband [0..1)
+   * @return filter
+   */
+  static InputFilter deadband(double deadband) {
+    double scale = 1.0 / (1.0 - deadband);
+    return (value, dt) -> Math.abs(value) > deadband ? (value - Math.copySign(deadband, value)) * scale : 0.0;
+  }
+
+  /**
+   * Blend of linear and cubic, finer control near center with the same full scale.
+   *
+   * @param expo 0 is linear, 1 is cubic
+   * @return filter
+   */
+  static InputFilter expo(double expo) {
+    return (value, dt) -> (1 - expo) * value + expo * value * value * value;
+  }
+
+  /**
+   * @param scale gain
+   * @return filter
+   */
+  static InputFilter scale(double scale) {
+    return (value, dt) -> value * scale;
+  }
+}
@@ -0,0 +1,61 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.input;
+
+/**
+ * Limits how fast a value changes, with separate limits for speeding up (magnitude growing)
+ * and slowing down (magnitude shrinking). A full reversal slows down to zero first,
+ * then speeds up the other way.
+ */
+public class SlewLimiter implements InputFilter {
+  private final double accelerationRate;
+  private final double decelerationRate;
+  private double last;
+
+  /**
+   * Creates a new SlewLimiter.
+   *
+   * @param accelerationRate units per second while the magnitude grows
+   * @param decelerationRate units per second while the magnitude shrinks
+   */
+  public SlewLimiter(double accelerationRate, double decelerationRate) {
+    this.accelerationRate = accelerationRate;
+    this.decelerationRate = decelerationRate;
+  }
+
+  /**
+   * Creates a new SlewLimiter with the same limit both ways.
+   *
+   * @param rate units per second
+   */
+  public SlewLimiter(double rate) {
+    this(rate, rate);
+  }
+
+  @Override
+  public double calculate(double value, double dt) {
+    double delta = value - last;
+    // slowing down when the change points back toward zero
+    boolean slowing = last != 0 && Math.signum(delta) == -Math.signum(last);
+    double rate = slowing ? decelerationRate : accelerationRate;
+    // an unlimited direction stays unlimited even at dt = 0
+    double step = rate == Double.POSITIVE_INFINITY ? rate : rate * dt;
+    double next = last + Math.max(-step, Math.min(delta, step));
+    if (slowing && Math.signum(next) == -Math.signum(last)) {
+      // stop at zero, the other side is speeding up and gets the acceleration limit next time
+      next = 0;
+    }
+    last = next;
+    return next;
+  }
+
+  @Override
+  public void reset() {
+    last = 0;
+  }
+}
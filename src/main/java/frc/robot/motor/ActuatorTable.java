@@ -0,0 +1,231 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants;
+
+/**
+ * Desired outputs of every motor for this loop. Commands and subsystems write into their
+ * {@link Actuator}, {@link #commit()} at the end of robotPeriodic sends only what changed,
+ * and resends unchanged outputs every {@link Constants.Actuator#keepAlive} so motor safety stays fed.
+ *
+ * <p>Main thread only. An output nobody wrote this loop isn't sent, and the next write always is,
+ * so something that drove the motor directly in between (characterization) can't be deduplicated away.
+ */
+public final class ActuatorTable {
+    /**
+     * One motor's output, last write of the loop wins.
+     */
+    public static final class Actuator {
+        public final String name;
+        private final MotorIO motor;
+
+        private ControlMode mode = ControlMode.PercentOutput;
+        private double  value;
+        private double  feedforward;
+        private boolean written;
+        // set by the health monitor, 1 is full output
+        private double  limit = 1;
+
+        private ControlMode sentMode;
+        private double sentValue;
+        private double sentFeedforward;
+        private double sentTime = Double.NEGATIVE_INFINITY;
+        private long   sent;
+
+        private Actuator(String name, MotorIO motor) {
+            this.name  = name;
+            this.motor = motor;
+        }
+
+        /**
+         * @param mode  control mode
+         * @param value demand
+         */
+        public void set(ControlMode mode, double value) {
+            set(mode, value, 0);
+        }
+
+        /**
+         * @param mode        control mode
+         * @param value       demand
+         * @param feedforward arbitrary feedforward [-1.0..1.0]
+         */
+        public void set(ControlMode mode, double value, double feedforward) {
+            this.mode        = mode;
+            this.value       = value;
+            this.feedforward = feedforward;
+            written = true;
+        }
+
+        /**
+         * Scale percent output and velocity demands, e.g. to derate a hot motor.
+         * Any other mode is only stopped, at 0.
+         *
+         * @param limit [0.0..1.0], 1 for full output
+         */
+        public void setLimit(double limit) {
+            this.limit = limit;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+
+        /**
+         * @return frames sent since boot
+         */
+        public long getSent() {
+            return sent;
+        }
+
+        /**
+         * @return true if sent
+         */
+        private boolean commit(double now) {
+            if (!written) {
+                // whatever the motor does now, the next write goes out
+                sentTime = Double.NEGATIVE_INFINITY;
+                return false;
+            }
+            written = false;
+            ControlMode mode        = this.mode;
+            double      value       = this.value;
+            double      feedforward = this.feedforward;
+            if (limit < 1) {
+                if (mode == ControlMode.PercentOutput || mode == ControlMode.Velocity) {
+                    value       *= limit;
+                    feedforward *= limit;
+                } else if (limit <= 0) {
+                    mode        = ControlMode.PercentOutput;
+                    value       = 0;
+                    feedforward = 0;
+                }
+            }
+            double epsilon = epsilon(mode);
+            if (mode == sentMode
+                    && Math.abs(value - sentValue) <= epsilon
+                    && Math.abs(feedforward - sentFeedforward) <= Constants.Actuator.percentEpsilon
+                    && now - sentTime < Constants.Actuator.keepAlive) {
+                return false;
+            }
+            motor.set(mode, value, feedforward);
+            sentMode        = mode;
+            sentValue       = value;
+            sentFeedforward = feedforward;
+            sentTime        = now;
+            sent++;
+            return true;
+        }
+    }
+
+    private static final List<Actuator> actuators = new ArrayList<>();
+
+    private static int  loopSent;
+    private static int  loopSkipped;
+    private static long totalSent;
+    private static long totalSkipped;
+
+    private ActuatorTable() {
+    }
+
+    /**
+     * @param name  for the dashboard
+     * @param motor master or standalone motor, followers aren't written
+     * @return where to write its output
+     */
+    public static Actuator register(String name, MotorIO motor) {
+        Actuator actuator = new Actuator(name, motor);
+        actuators.add(actuator);
+        return actuator;
+    }
+
+    /**
+     * @return actuators registered so far
+     */
+    public static int size() {
+        return actuators.size();
+    }
+
+    /**
+     * @param i 0 to {@link #size()}
+     * @return actuator, in registration order
+     */
+    public static Actuator get(int i) {
+        return actuators.get(i);
+    }
+
+    /**
+     * Send this loop's outputs, call once at the end of robotPeriodic.
+     */
+    public static void commit() {
+        commit(Timer.getFPGATimestamp());
+        SmartDashboard.putNumber("Actuator frames sent",    loopSent);
+        SmartDashboard.putNumber("Actuator frames skipped", loopSkipped);
+    }
+
+    /**
+     * {@link #commit()} at a given time and without the dashboard, e.g. in a test.
+     *
+     * @param now seconds, only compared with earlier calls
+     */
+    public static void commit(double now) {
+        loopSent    = 0;
+        loopSkipped = 0;
+        for (int i = 0; i < actuators.size(); i++) {
+            Actuator actuator = actuators.get(i);
+            boolean wasWritten = actuator.written;
+            if (actuator.commit(now)) {
+                loopSent++;
+            } else if (wasWritten) {
+                loopSkipped++;
+            }
+        }
+        totalSent    += loopSent;
+        totalSkipped += loopSkipped;
+    }
+
+    /**
+     * Forget every actuator and count, e.g. between tests that create subsystems.
+     */
+    public static void reset() {
+        actuators.clear();
+        loopSent     = 0;
+        loopSkipped  = 0;
+        totalSent    = 0;
+        totalSkipped = 0;
+    }
+
+    /**
+     * @return frames sent since boot
+     */
+    public static long getTotalSent() {
+        return totalSent;
+    }
+
+    /**
+     * @return unchanged outputs not sent since boot
+     */
+    public static long getTotalSkipped() {
+        return totalSkipped;
+    }
+
+    /**
+     * Velocity setpoints are native units per 100ms, everything else is treated like percent output.
+     */
+    private static double epsilon(ControlMode mode) {
+        return mode == ControlMode.Velocity ? Constants.Actuator.velocityEpsilon : Constants.Actuator.percentEpsilon;
+    }
+}
@@ -0,0 +1,139 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * Estimated CAN traffic of the motor controllers, from the status frame periods we set.
+ * Only an estimate: PDP, PCM and the navX aren't counted, and bit stuffing is an average.
+ */
+public final class CanLoad {
+    /**
+     * Which status frames a controller sends.
+     */
+    public enum Kind {
+        /** Status 10, 12, 13, 14, 3, 8, 21 besides the listed ones, plus the current frame */
+        TALON_FX(7),
+        /** Status 10, 12, 13, 14, 3, 8 */
+        TALON_SRX(6),
+        /** Status 10, 12, 13, 14 */
+        VICTOR_SPX(4);
+
+        final int otherFrames;
+
+        Kind(int otherFrames) {
+            this.otherFrames = otherFrames;
+        }
+    }
+
+    // extended frame with 8 data bytes, with typical bit stuffing
+    public static final double kBitsPerFrame = 135;
+    public static final double kBitRate      = 1e6;
+    // the roboRIO sends every controller a control frame every 10ms, before and after
+    public static final double kControlFramesPerSecond = 100;
+
+    private static final List<String> names  = new ArrayList<>();
+    private static final List<Double> before = new ArrayList<>();
+    private static final List<Double> after  = new ArrayList<>();
+
+    private CanLoad() {
+    }
+
+    /**
+     * Frames per second a controller sends and receives.
+     */
+    static double framesPerSecond(Kind kind, int general, int feedback, int current, int temperature, int other) {
+        double frames = kControlFramesPerSecond
+                      + 1000.0 / general + 1000.0 / feedback + 1000.0 / temperature
+                      + kind.otherFrames * 1000.0 / other;
+        if (kind == Kind.TALON_FX) {
+            frames += 1000.0 / current;
+        }
+        return frames;
+    }
+
+    /**
+     * Record a controller whose status frames were just set.
+     *
+     * @param name        device
+     * @param kind        which frames it sends
+     * @param role        what it was set to
+     * @param feedbackMs  Status 2 period actually used
+     */
+    static synchronized void add(String name, Kind kind, StatusFrameProfile role, int feedbackMs) {
+        names.add(name + " " + role);
+        before.add(framesPerSecond(kind, StatusFrameProfile.kDefaultGeneral, StatusFrameProfile.kDefaultFeedback,
+                                   StatusFrameProfile.kDefaultCurrent, StatusFrameProfile.kDefaultTemperature,
+                                   StatusFrameProfile.kDefaultOther));
+        after.add(framesPerSecond(kind, role.general, feedbackMs, role.current, role.temperature,
+                                  StatusFrameProfile.kSlowest));
+    }
+
+    /**
+     * @return controllers recorded so far
+     */
+    public static synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * @param i 0 to {@link #size()}
+     * @return device and role
+     */
+    public static synchronized String getName(int i) {
+        return names.get(i);
+    }
+
+    /**
+     * @param i 0 to {@link #size()}
+     * @return estimated frames per second of the controller, status and control
+     */
+    public static synchronized double getFramesPerSecond(int i) {
+        return after.get(i);
+    }
+
+    /**
+     * @return estimated frames per second of every recorded controller
+     */
+    public static synchronized double getFramesPerSecond() {
+        double total = 0;
+        for (double frames : after) {
+            total += frames;
+        }
+        return total;
+    }
+
+    /**
+     * @param framesPerSecond frames per second
+     * @return bus utilization [0..1]
+     */
+    public static double utilization(double framesPerSecond) {
+        return framesPerSecond * kBitsPerFrame / kBitRate;
+    }
+
+    /**
+     * Print frames per second per device and the bus utilization, default periods against ours.
+     */
+    public static synchronized void report() {
+        double totalBefore = 0;
+        double totalAfter  = 0;
+        for (int i = 0; i < names.size(); i++) {
+            System.out.printf("[CAN] %-32s %6.0f -> %6.0f frames/s%n", names.get(i), before.get(i), after.get(i));
+            totalBefore += before.get(i);
+            totalAfter  += after.get(i);
+        }
+        System.out.printf("[CAN] motor controllers: %.0f -> %.0f frames/s, %.1f%% -> %.1f%% of the bus%n",
+                          totalBefore, totalAfter, utilization(totalBefore) * 100, utilization(totalAfter) * 100);
+        SmartDashboard.putNumber("CAN estimate before %", utilization(totalBefore) * 100);
+        SmartDashboard.putNumber("CAN estimate %",        utilization(totalAfter) * 100);
+    }
+}
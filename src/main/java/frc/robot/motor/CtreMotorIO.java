@@ -0,0 +1,135 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix.motorcontrol.can.BaseTalon;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonFX;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import com.ctre.phoenix.motorcontrol.can.WPI_VictorSPX;
+
+/**
+ * {@link MotorIO} on a CTRE motor controller, every call goes straight to it.
+ * Configuration ({@link MotorBatch}, {@link MotorFactory}) still works on the controller itself.
+ */
+public final class CtreMotorIO implements MotorIO {
+    private final BaseMotorController motor;
+    // null for a Victor SPX
+    private final BaseTalon talon;
+
+    public CtreMotorIO(BaseMotorController motor) {
+        this.motor = motor;
+        this.talon = motor instanceof BaseTalon ? (BaseTalon) motor : null;
+    }
+
+    public static CtreMotorIO talonFX(int id) {
+        return new CtreMotorIO(new WPI_TalonFX(id));
+    }
+
+    public static CtreMotorIO talonSRX(int id) {
+        return new CtreMotorIO(new WPI_TalonSRX(id));
+    }
+
+    public static CtreMotorIO victorSPX(int id) {
+        return new CtreMotorIO(new WPI_VictorSPX(id));
+    }
+
+    /**
+     * @return the controller, for configuration
+     */
+    public BaseMotorController getController() {
+        return motor;
+    }
+
+    @Override
+    public void set(ControlMode mode, double demand, double feedforward) {
+        if (feedforward == 0) {
+            motor.set(mode, demand);
+        } else {
+            motor.set(mode, demand, DemandType.ArbitraryFeedForward, feedforward);
+        }
+    }
+
+    @Override
+    public void follow(MotorIO master) {
+        if (!(master instanceof CtreMotorIO)) {
+            throw new IllegalArgumentException("Can't follow " + master);
+        }
+        motor.follow(((CtreMotorIO) master).motor);
+    }
+
+    @Override
+    public void stop() {
+        motor.neutralOutput();
+    }
+
+    @Override
+    public void selectSlot(int slot) {
+        motor.selectProfileSlot(slot, 0);
+    }
+
+    @Override
+    public void setPosition(double position) {
+        motor.setSelectedSensorPosition((int) position, 0, 0);
+    }
+
+    @Override
+    public void setSupplyCurrentLimit(SupplyCurrentLimitConfiguration limit) {
+        if (talon != null) {
+            talon.configSupplyCurrentLimit(limit, 0);
+        }
+    }
+
+    @Override
+    public double getPosition() {
+        return motor.getSelectedSensorPosition();
+    }
+
+    @Override
+    public double getVelocity() {
+        return motor.getSelectedSensorVelocity();
+    }
+
+    @Override
+    public double getOutputPercent() {
+        return motor.getMotorOutputPercent();
+    }
+
+    @Override
+    public double getOutputVoltage() {
+        return motor.getMotorOutputVoltage();
+    }
+
+    @Override
+    public double getSupplyCurrent() {
+        return talon == null ? 0 : talon.getSupplyCurrent();
+    }
+
+    @Override
+    public double getStatorCurrent() {
+        return talon == null ? 0 : talon.getStatorCurrent();
+    }
+
+    @Override
+    public double getTemperature() {
+        return motor.getTemperature();
+    }
+
+    @Override
+    public boolean hasCurrentSensing() {
+        return talon != null;
+    }
+
+    @Override
+    public String toString() {
+        return motor.getClass().getSimpleName() + "(" + motor.getDeviceID() + ")";
+    }
+}
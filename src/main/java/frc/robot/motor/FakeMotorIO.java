@@ -0,0 +1,237 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
+
+import frc.robot.Constants;
+
+/**
+ * In-memory {@link MotorIO}, nothing touches HAL or CAN. Velocity follows the commanded output with a
+ * first order lag, current comes from the back EMF and temperature from the current.
+ * Velocity mode is treated as an ideal feedforward, the Talon's loop isn't modeled.
+ * Time only moves on {@link #update(double)}.
+ */
+public final class FakeMotorIO implements MotorIO {
+    /** Falcon 500 free speed with its 2048 per turn sensor, native units per 100ms */
+    public static final double kFalconFreeSpeed    = 6380.0 * 2048 / 600;
+    public static final double kFalconStallCurrent = 257;
+
+    // every fake behaves like it's voltage compensated
+    private static final double kVoltage = Constants.Motor.voltageCompSaturation;
+    private static final double kAmbient = 25;
+    // °C per second per A², and per second per °C above ambient
+    private static final double kHeating = 0.0005;
+    private static final double kCooling = 1.0 / 300;
+
+    private final String name;
+    private final double freeSpeed;
+    private final double timeConstant;
+    private final double stallCurrent;
+    private final boolean currentSensing;
+
+    private FakeMotorIO master;
+    private ControlMode mode = ControlMode.PercentOutput;
+    private double demand;
+    private double feedforward;
+    private int    slot;
+    private SupplyCurrentLimitConfiguration limit;
+    private boolean jammed;
+    private long   sets;
+
+    private double output;
+    private double position;
+    private double velocity;
+    private double statorCurrent;
+    private double supplyCurrent;
+    private double temperature = kAmbient;
+
+    /**
+     * @param name           for toString
+     * @param freeSpeed      native units per 100ms at full output
+     * @param timeConstant   seconds to reach 63% of a velocity step, with the load
+     * @param stallCurrent   amps at full output and no speed
+     * @param currentSensing false to fake a Victor SPX
+     */
+    public FakeMotorIO(String name, double freeSpeed, double timeConstant, double stallCurrent, boolean currentSensing) {
+        this.name           = name;
+        this.freeSpeed      = freeSpeed;
+        this.timeConstant   = timeConstant;
+        this.stallCurrent   = stallCurrent;
+        this.currentSensing = currentSensing;
+    }
+
+    /**
+     * @param name         for toString
+     * @param timeConstant seconds, with the load
+     * @return a Falcon 500
+     */
+    public static FakeMotorIO falcon(String name, double timeConstant) {
+        return new FakeMotorIO(name, kFalconFreeSpeed, timeConstant, kFalconStallCurrent, true);
+    }
+
+    /**
+     * Move time forward, followers after their master.
+     *
+     * @param dt seconds
+     */
+    public void update(double dt) {
+        output = commanded();
+        double target = jammed ? 0 : output * freeSpeed;
+        velocity += (target - velocity) * (1 - Math.exp(-dt / timeConstant));
+        position += velocity * dt * 10;
+        statorCurrent = Math.abs(output - velocity / freeSpeed) * stallCurrent;
+        supplyCurrent = statorCurrent * Math.abs(output);
+        if (limit != null && limit.enable) {
+            supplyCurrent = Math.min(supplyCurrent, limit.currentLimit);
+        }
+        temperature += (statorCurrent * statorCurrent * kHeating - (temperature - kAmbient) * kCooling) * dt;
+    }
+
+    private double commanded() {
+        if (master != null) {
+            return master.output;
+        }
+        double out;
+        switch (mode) {
+            case PercentOutput:
+                out = demand + feedforward;
+                break;
+            case Velocity:
+                out = demand / freeSpeed + feedforward;
+                break;
+            default:
+                out = 0;
+                break;
+        }
+        return Math.max(-1, Math.min(out, 1));
+    }
+
+    /**
+     * @param jammed true to hold the shaft still, e.g. to test stall detection
+     */
+    public void setJammed(boolean jammed) {
+        this.jammed = jammed;
+        if (jammed) {
+            velocity = 0;
+        }
+    }
+
+    /**
+     * @param temperature °C
+     */
+    public void setTemperature(double temperature) {
+        this.temperature = temperature;
+    }
+
+    public ControlMode getMode() {
+        return mode;
+    }
+
+    public double getDemand() {
+        return demand;
+    }
+
+    public double getFeedforward() {
+        return feedforward;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return {@link #set} calls so far
+     */
+    public long getSetCount() {
+        return sets;
+    }
+
+    @Override
+    public void set(ControlMode mode, double demand, double feedforward) {
+        this.mode        = mode;
+        this.demand      = demand;
+        this.feedforward = feedforward;
+        master = null;
+        sets++;
+    }
+
+    @Override
+    public void follow(MotorIO master) {
+        if (!(master instanceof FakeMotorIO)) {
+            throw new IllegalArgumentException("Can't follow " + master);
+        }
+        this.master = (FakeMotorIO) master;
+    }
+
+    @Override
+    public void stop() {
+        set(ControlMode.PercentOutput, 0, 0);
+    }
+
+    @Override
+    public void selectSlot(int slot) {
+        this.slot = slot;
+    }
+
+    @Override
+    public void setPosition(double position) {
+        this.position = position;
+    }
+
+    @Override
+    public void setSupplyCurrentLimit(SupplyCurrentLimitConfiguration limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public double getPosition() {
+        return position;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public double getOutputPercent() {
+        return output;
+    }
+
+    @Override
+    public double getOutputVoltage() {
+        return output * kVoltage;
+    }
+
+    @Override
+    public double getSupplyCurrent() {
+        return currentSensing ? supplyCurrent : 0;
+    }
+
+    @Override
+    public double getStatorCurrent() {
+        return currentSensing ? statorCurrent : 0;
+    }
+
+    @Override
+    public double getTemperature() {
+        return temperature;
+    }
+
+    @Override
+    public boolean hasCurrentSensing() {
+        return currentSensing;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
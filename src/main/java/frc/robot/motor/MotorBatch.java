@@ -0,0 +1,292 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * Applies {@link MotorProfile}s to a group of motors in one go: read the config back, send only what
+ * differs, then set up followers. No factory default, so a motor that is already configured costs
+ * one read and no writes.
+ *
+ * <p>Every device is configured on its own task of a small shared pool, its steps stay in the order
+ * they were added. {@link #apply()} returns right away, {@link #join()} waits for every batch.
+ *
+ * <p>Devices are {@link MotorIO}s: a {@link FakeMotorIO} skips the profile and the CTRE steps,
+ * only {@link #follow} applies to it.
+ */
+public class MotorBatch {
+    public static final int kTimeoutMs = 30;
+    // devices configured at the same time, each one blocks on its own config round trips
+    public static final int kThreads   = 4;
+
+    /**
+     * One device and its steps.
+     */
+    private static final class Device {
+        final String batch;
+        final MotorIO io;
+        // null when not a CTRE controller
+        final BaseMotorController motor;
+        final MotorProfile profile;
+        final List<Runnable> steps = new ArrayList<>();
+        // written by the pool thread, read after join
+        double ms;
+        int sent;
+        // the first failed call, a later success doesn't clear it
+        ErrorCode error = ErrorCode.OK;
+        Throwable failure;
+        Future<?> future;
+
+        Device(String batch, MotorIO io, MotorProfile profile) {
+            this.batch   = batch;
+            this.io      = io;
+            this.motor   = io instanceof CtreMotorIO ? ((CtreMotorIO) io).getController() : null;
+            this.profile = profile;
+        }
+
+        void run() {
+            long start = System.nanoTime();
+            try {
+                if (profile == null || motor == null) {
+                    sent = 0;
+                } else if (motor instanceof TalonFX) {
+                    sent = profile.apply((TalonFX) motor, kTimeoutMs, this::check);
+                    // the inversion and enables don't return one
+                    check(motor.getLastError());
+                } else if (motor instanceof TalonSRX) {
+                    sent = profile.apply((TalonSRX) motor, kTimeoutMs, this::check);
+                    check(motor.getLastError());
+                } else {
+                    throw new IllegalArgumentException("Not a Talon FX or SRX: " + motor.getDeviceID());
+                }
+                for (Runnable step : steps) {
+                    step.run();
+                    if (motor != null) {
+                        // only the step's last call for steps that don't check their own
+                        check(motor.getLastError());
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            ms = (System.nanoTime() - start) / 1e6;
+        }
+
+        void check(ErrorCode code) {
+            if (error == ErrorCode.OK && code != ErrorCode.OK) {
+                error = code;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return batch + " " + (profile == null ? "" : profile + " ") + io;
+        }
+    }
+
+    // every device since boot, in the order added, for the report
+    private static final List<Device>    devices = new ArrayList<>();
+    private static final List<Device>    pending = new ArrayList<>();
+    private static ExecutorService executor;
+    private static double joinMs;
+
+    private final String name;
+    private final List<Device> batch = new ArrayList<>();
+
+    /**
+     * @param name for the boot report
+     */
+    public MotorBatch(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param motor   Talon FX or Talon SRX
+     * @param profile what it should be configured with
+     * @return this
+     */
+    public MotorBatch add(MotorIO motor, MotorProfile profile) {
+        batch.add(new Device(name, motor, profile));
+        return this;
+    }
+
+    /**
+     * A device without a profile, e.g. a Victor SPX that only gets status frames or a follower.
+     *
+     * @param motor any motor
+     * @return this
+     */
+    public MotorBatch add(MotorIO motor) {
+        return add(motor, null);
+    }
+
+    /**
+     * Run a step on the device's CTRE controller, on its task after its profile and the steps before it.
+     * Skipped for anything else.
+     *
+     * @param motor added to this batch
+     * @param step  e.g. a sensor reset
+     * @return this
+     */
+    public MotorBatch then(MotorIO motor, Consumer<BaseMotorController> step) {
+        Device device = device(motor);
+        if (device.motor != null) {
+            device.steps.add(() -> step.accept(device.motor));
+        }
+        return this;
+    }
+
+    /**
+     * @see MotorFactory#setStatusFrames(BaseMotorController, StatusFrameProfile)
+     */
+    public MotorBatch statusFrames(MotorIO motor, StatusFrameProfile role) {
+        return statusFrames(motor, role, role.feedback);
+    }
+
+    /**
+     * @see MotorFactory#setStatusFrames(BaseMotorController, StatusFrameProfile, int)
+     */
+    public MotorBatch statusFrames(MotorIO motor, StatusFrameProfile role, int feedbackMs) {
+        Device device = device(motor);
+        if (device.motor != null) {
+            device.steps.add(() -> MotorFactory.setStatusFrames(device.motor, role, feedbackMs, device::check));
+        }
+        return this;
+    }
+
+    /**
+     * @param follower follows master as the last step of its own task
+     * @param master   master
+     * @return this
+     */
+    public MotorBatch follow(MotorIO follower, MotorIO master) {
+        device(follower).steps.add(() -> follower.follow(master));
+        return this;
+    }
+
+    /**
+     * Start configuring every device of the batch, each on its own task.
+     */
+    public void apply() {
+        synchronized (MotorBatch.class) {
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(kThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "MotorConfig");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            for (Device device : batch) {
+                devices.add(device);
+                device.future = executor.submit(device::run);
+                pending.add(device);
+            }
+        }
+    }
+
+    /**
+     * Wait for every batch started so far. Call once at the end of robotInit, before anything drives
+     * the motors. An interrupt doesn't cut it short, half configured motors are worse than a late boot.
+     */
+    public static synchronized void join() {
+        long start = System.nanoTime();
+        boolean interrupted = false;
+        for (Device device : pending) {
+            while (true) {
+                try {
+                    device.future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    // Device.run catches RuntimeExceptions, this is an Error, reported with the rest
+                    device.failure = e.getCause();
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        pending.clear();
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        joinMs += (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Per device timing and errors, and the totals of every batch so far, call after {@link #join()}.
+     * Failures go to the driver station with their stack trace.
+     */
+    public static synchronized void report() {
+        double deviceMs = 0;
+        int sent = 0;
+        int failed = 0;
+        for (Device device : devices) {
+            String result;
+            if (!device.future.isDone()) {
+                result = "not finished";
+                failed++;
+            } else if (device.failure != null) {
+                result = "failed: " + device.failure;
+                DriverStation.reportError("[Config] " + device + " failed: " + device.failure,
+                                          device.failure.getStackTrace());
+                failed++;
+            } else if (device.error != ErrorCode.OK) {
+                result = device.sent + " sent, first error " + device.error;
+                failed++;
+            } else {
+                result = device.sent < 0 ? "unreadable, sent everything" : device.sent + " sent";
+            }
+            System.out.printf("[Config] %s: %s in %.1f ms%n", device, result, device.ms);
+            deviceMs += device.ms;
+            sent += Math.max(device.sent, 0);
+        }
+        System.out.printf("[Config] total: %d devices, %d parameters sent, %d with errors, %.1f ms of config"
+                          + " with %d threads, waited %.1f ms at the join%n",
+                          devices.size(), sent, failed, deviceMs, kThreads, joinMs);
+        SmartDashboard.putNumber("Motor config ms", deviceMs);
+        SmartDashboard.putNumber("Motor config join ms", joinMs);
+        SmartDashboard.putNumber("Motor config sent", sent);
+        SmartDashboard.putNumber("Motor config errors", failed);
+    }
+
+    /**
+     * Forget the devices of the report, after {@link #join()}, e.g. between tests that create subsystems.
+     */
+    public static synchronized void reset() {
+        devices.clear();
+        joinMs = 0;
+    }
+
+    private Device device(MotorIO motor) {
+        for (Device device : batch) {
+            if (device.io == motor) {
+                return device;
+            }
+        }
+        throw new IllegalArgumentException("Not in batch " + name + ": " + motor);
+    }
+}
@@ -7,8 +7,15 @@
 
 package frc.robot.motor;
 
+import java.util.function.Consumer;
+
+import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
 import com.ctre.phoenix.motorcontrol.InvertType;
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix.motorcontrol.can.BaseTalon;
 import com.ctre.phoenix.motorcontrol.can.TalonFX;
 import com.ctre.phoenix.motorcontrol.can.WPI_VictorSPX;
 import com.ctre.phoenix.motorcontrol.can.TalonSRX;
@@ -16,18 +23,9 @@ import com.ctre.phoenix.motorcontrol.can.VictorSPX;
 
 /**
  * Config motor, using "Fluent Interface".
- * Must using all method before using configLikePrevious()
+ * Boot configuration should use {@link MotorProfile} and {@link MotorBatch}, these send unconditionally.
  */
 public class MotorFactory {
-    /**
-     * Restoring motor config.
-     */
-    private static class MotorConfig {
-        public static FeedbackDevice sensor;
-        public static int sensorPosition;
-        public static int pidSlot;
-        public static int timeoutMs;
-    }
     /**
      * Initializing motor
      * @param motor
@@ -85,7 +83,6 @@ public class MotorFactory {
      * @return motor {@link com.ctre.phoenix.motorcontrol.FeedbackDevice}
      */
     public static TalonFX setSensor(final TalonFX motor, final FeedbackDevice sensorType) {
-        MotorConfig.sensor = sensorType;
         motor.configSelectedFeedbackSensor(sensorType);
         return motor;
     }
@@ -98,7 +95,6 @@ public class MotorFactory {
      * @return motor {@link com.ctre.phoenix.motorcontrol.FeedbackDevice}
      */
     public static WPI_VictorSPX setSensor(final WPI_VictorSPX Victor_master, final FeedbackDevice sensorType) {
-        MotorConfig.sensor = sensorType;
         Victor_master.configSelectedFeedbackSensor(sensorType);
         return Victor_master;
     }
@@ -111,7 +107,6 @@ public class MotorFactory {
      * @return motor {@link com.ctre.phoenix.motorcontrol.FeedbackDevice}
      */
     public static TalonSRX setSensor(final TalonSRX TalonSRX_master, final FeedbackDevice sensorType) {
-        MotorConfig.sensor = sensorType;
         TalonSRX_master.configSelectedFeedbackSensor(sensorType);
         return  TalonSRX_master;
     }
@@ -127,9 +122,6 @@ public class MotorFactory {
      */
     public static TalonFX setPosion(final TalonFX motor, final int sensorPosition, final int pidSlot,
             final int timeoutMs) {
-        MotorConfig.sensorPosition = sensorPosition;
-        MotorConfig.pidSlot = pidSlot;
-        MotorConfig.timeoutMs = timeoutMs;
         motor.setSelectedSensorPosition(sensorPosition, pidSlot, timeoutMs);
         return motor;
     }
@@ -171,20 +163,6 @@ public class MotorFactory {
     }
 
 
-    /**
-     * Set motor like previous.
-     * 
-     * @param motor 
-     * @param sensorPhase
-     * @param isleftmotorinvert  {@link MotorConfig}
-     */
-    public static void configLikePrevious(final TalonFX motor, final boolean sensorPhase, final boolean isleftmotorinvert) {
-        motor.configSelectedFeedbackSensor(MotorConfig.sensor);
-        motor.setSelectedSensorPosition(MotorConfig.sensorPosition, MotorConfig.pidSlot, MotorConfig.timeoutMs);
-        motor.setSensorPhase(sensorPhase);
-        motor.setInverted(isleftmotorinvert);
-    }
-
     /**
      * Set motor PID 設置馬達kP, kF
      * 
@@ -259,7 +237,6 @@ public class MotorFactory {
      * @param timeoutMs 設置報錯時間
      */
     public static TalonFX configmotorlimit(final TalonFX motor,double deadband,double percentOut,double percentOut2,double Ramp,int timeoutMs){
-        motor.configFactoryDefault();
         motor.configNeutralDeadband(deadband);
         motor.configPeakOutputForward(percentOut,timeoutMs);
         motor.configPeakOutputReverse(percentOut2,timeoutMs);
@@ -276,4 +253,61 @@ public class MotorFactory {
         motor.configClosedloopRamp(time, 10);
         return motor;
     }
+
+    /**
+     * Set status frame periods by role, and record the device for {@link CanLoad#report()}.
+     *
+     * @param motor Talon FX, Talon SRX or Victor SPX
+     * @param role  what the device is used for
+     * @return motor
+     */
+    public static <T extends BaseMotorController> T setStatusFrames(final T motor, final StatusFrameProfile role) {
+        return setStatusFrames(motor, role, role.feedback);
+    }
+
+    /**
+     * Set status frame periods by role, with a different Status 2 period.
+     *
+     * @param motor      Talon FX, Talon SRX or Victor SPX
+     * @param role       what the device is used for
+     * @param feedbackMs Status 2 period, e.g. faster for odometry
+     * @return motor
+     */
+    public static <T extends BaseMotorController> T setStatusFrames(final T motor, final StatusFrameProfile role,
+            final int feedbackMs) {
+        setStatusFrames(motor, role, feedbackMs, error -> { });
+        return motor;
+    }
+
+    /**
+     * {@link #setStatusFrames(BaseMotorController, StatusFrameProfile, int)} for {@link MotorBatch}.
+     *
+     * @param errors gets the result of every write
+     */
+    static void setStatusFrames(final BaseMotorController motor, final StatusFrameProfile role,
+            final int feedbackMs, final Consumer<ErrorCode> errors) {
+        final int timeoutMs = MotorBatch.kTimeoutMs;
+        final int slowest   = StatusFrameProfile.kSlowest;
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_1_General,     role.general,     timeoutMs));
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_2_Feedback0,   feedbackMs,       timeoutMs));
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_4_AinTempVbat, role.temperature, timeoutMs));
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_10_Targets,    slowest,          timeoutMs));
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_12_Feedback1,  slowest,          timeoutMs));
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_13_Base_PIDF0, slowest,          timeoutMs));
+        errors.accept(motor.setStatusFramePeriod(StatusFrame.Status_14_Turn_PIDF1, slowest,          timeoutMs));
+        CanLoad.Kind kind = CanLoad.Kind.VICTOR_SPX;
+        if (motor instanceof BaseTalon) {
+            BaseTalon talon = (BaseTalon) motor;
+            errors.accept(talon.setStatusFramePeriod(StatusFrameEnhanced.Status_3_Quadrature, slowest, timeoutMs));
+            errors.accept(talon.setStatusFramePeriod(StatusFrameEnhanced.Status_8_PulseWidth, slowest, timeoutMs));
+            kind = CanLoad.Kind.TALON_SRX;
+        }
+        if (motor instanceof TalonFX) {
+            TalonFX falcon = (TalonFX) motor;
+            errors.accept(falcon.setStatusFramePeriod(StatusFrameEnhanced.Status_21_FeedbackIntegrated, slowest,      timeoutMs));
+            errors.accept(falcon.setStatusFramePeriod(StatusFrameEnhanced.Status_Brushless_Current,     role.current, timeoutMs));
+            kind = CanLoad.Kind.TALON_FX;
+        }
+        CanLoad.add(motor.getClass().getSimpleName() + "(" + motor.getDeviceID() + ")", kind, role, feedbackMs);
+    }
 }
@@ -0,0 +1,321 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants;
+
+/**
+ * Watches the motors for stalls, overheating and dead encoders. A notifier samples every registered
+ * controller at {@link Constants.Health#period} into fixed ring buffers and raises faults,
+ * {@link #apply()} reacts to them on the main thread through each motor's {@link ActuatorTable.Actuator}.
+ *
+ * <p>Without current sensing, e.g. a Victor SPX, only the temperature is watched.
+ */
+public final class MotorHealth {
+    /**
+     * What to do about a fault, stronger ones win.
+     */
+    public enum Action {
+        NONE,
+        /** print and show it */
+        REPORT,
+        /** limit the output to {@link Constants.Health#derate} */
+        DERATE,
+        /** no output */
+        STOP
+    }
+
+    public static final int STALL   = 1;
+    public static final int THERMAL = 2;
+    public static final int SENSOR  = 4;
+
+    /**
+     * One controller, its buffers belong to the sampling thread.
+     */
+    private static final class Monitored {
+        final String name;
+        final MotorIO motor;
+        final boolean currentSensing;
+        final ActuatorTable.Actuator output;
+        final boolean hasSensor;
+        final Action stall;
+        final Action thermal;
+        final Action sensor;
+
+        final double[] supplyCurrent = new double[Constants.Health.window];
+        final double[] statorCurrent = new double[Constants.Health.window];
+        final double[] percentOutput = new double[Constants.Health.window];
+        final double[] velocity      = new double[Constants.Health.window];
+        final double[] temperature   = new double[Constants.Health.thermalWindow];
+        int samples;
+        int next;
+        int temperatures;
+        int nextTemperature;
+
+        // written by the sampling thread, read by apply()
+        volatile int faults;
+        volatile double lastTemperature;
+        volatile double averageCurrent;
+
+        // main thread only
+        int reported;
+        int published;
+        double heldUntil = Double.NEGATIVE_INFINITY;
+        Action held = Action.NONE;
+        double limit = 1;
+
+        Monitored(String name, MotorIO motor, ActuatorTable.Actuator output, boolean hasSensor,
+                  Action stall, Action thermal, Action sensor) {
+            this.name           = name;
+            this.motor          = motor;
+            this.currentSensing = motor.hasCurrentSensing();
+            this.output         = output;
+            this.hasSensor      = hasSensor;
+            this.stall          = stall;
+            this.thermal        = thermal;
+            this.sensor         = sensor;
+        }
+
+        /**
+         * What the faults call for.
+         */
+        Action action(int faults) {
+            Action action = Action.NONE;
+            if ((faults & STALL) != 0 && stall.compareTo(action) > 0) {
+                action = stall;
+            }
+            if ((faults & THERMAL) != 0 && thermal.compareTo(action) > 0) {
+                action = thermal;
+            }
+            if ((faults & SENSOR) != 0 && sensor.compareTo(action) > 0) {
+                action = sensor;
+            }
+            return action;
+        }
+    }
+
+    private static final List<Monitored> monitored = new ArrayList<>();
+    private static final int samplesPerTemperature = (int) Math.round(1 / Constants.Health.period);
+    private static Notifier notifier;
+    private static int ticks;
+
+    private MotorHealth() {
+    }
+
+    /**
+     * Watch a controller, register everything before {@link #start()}.
+     *
+     * @param name      for the report
+     * @param motor     any motor
+     * @param output    where derate and stop are applied, the master's for a follower
+     * @param hasSensor false if nothing is connected, the velocity means nothing
+     * @param stall     on high current without moving
+     * @param thermal   on overheating or heating toward it
+     * @param sensor    on an encoder that doesn't move while the motor is driven
+     */
+    public static void register(String name, MotorIO motor, ActuatorTable.Actuator output,
+                                boolean hasSensor, Action stall, Action thermal, Action sensor) {
+        if (notifier != null) {
+            throw new IllegalStateException("MotorHealth already started, can't add " + name);
+        }
+        monitored.add(new Monitored(name, motor, output, hasSensor, stall, thermal, sensor));
+    }
+
+    /**
+     * Start sampling, call once after the motors are configured.
+     */
+    public static void start() {
+        if (notifier == null) {
+            notifier = new Notifier(MotorHealth::sample);
+            notifier.startPeriodic(Constants.Health.period);
+        }
+    }
+
+    /**
+     * Stop sampling and forget every motor, e.g. between tests that create subsystems.
+     */
+    public static synchronized void reset() {
+        if (notifier != null) {
+            notifier.stop();
+            notifier.close();
+            notifier = null;
+        }
+        monitored.clear();
+        ticks = 0;
+    }
+
+    /**
+     * Runs on the notifier thread, a test without one calls it directly after moving its fakes.
+     */
+    static void sample() {
+        boolean temperatureTick = ticks++ % samplesPerTemperature == 0;
+        for (int i = 0; i < monitored.size(); i++) {
+            Monitored m = monitored.get(i);
+            int n = m.next;
+            m.percentOutput[n] = m.motor.getOutputPercent();
+            m.velocity[n]      = m.hasSensor ? m.motor.getVelocity() : 0;
+            m.supplyCurrent[n] = m.currentSensing ? m.motor.getSupplyCurrent() : 0;
+            m.statorCurrent[n] = m.currentSensing ? m.motor.getStatorCurrent() : 0;
+            m.next    = (n + 1) % Constants.Health.window;
+            m.samples = Math.min(m.samples + 1, Constants.Health.window);
+            if (temperatureTick) {
+                double temperature = m.motor.getTemperature();
+                m.temperature[m.nextTemperature] = temperature;
+                m.nextTemperature = (m.nextTemperature + 1) % Constants.Health.thermalWindow;
+                m.temperatures    = Math.min(m.temperatures + 1, Constants.Health.thermalWindow);
+                m.lastTemperature = temperature;
+            }
+            m.faults = detect(m);
+        }
+    }
+
+    private static int detect(Monitored m) {
+        int faults = 0;
+        if (m.samples == Constants.Health.window && m.currentSensing) {
+            double stator = 0;
+            double output = 0;
+            double speed  = 0;
+            for (int i = 0; i < m.samples; i++) {
+                stator += m.statorCurrent[i];
+                output += Math.abs(m.percentOutput[i]);
+                speed   = Math.max(speed, Math.abs(m.velocity[i]));
+            }
+            stator /= m.samples;
+            output /= m.samples;
+            m.averageCurrent = stator;
+            boolean still = !m.hasSensor || speed < Constants.Health.stallVelocity;
+            if (stator > Constants.Health.stallCurrent && output > Constants.Health.stallOutput && still) {
+                faults |= STALL;
+            }
+            if (m.hasSensor && speed == 0 && output > Constants.Health.sensorOutput
+                    && stator > Constants.Health.sensorCurrent && stator <= Constants.Health.stallCurrent) {
+                faults |= SENSOR;
+            }
+        }
+        if (m.temperatures > 0) {
+            double newest = m.lastTemperature;
+            double trend  = 0;
+            if (m.temperatures == Constants.Health.thermalWindow) {
+                // the oldest is the next one to be overwritten, one sample per second
+                double oldest = m.temperature[m.nextTemperature];
+                trend = (newest - oldest) / (Constants.Health.thermalWindow - 1);
+            }
+            if (newest >= Constants.Health.maxTemperature
+                    || (newest >= Constants.Health.trendTemperature
+                        && newest + trend * Constants.Health.thermalHorizon >= Constants.Health.maxTemperature)) {
+                faults |= THERMAL;
+            }
+        }
+        return faults;
+    }
+
+    /**
+     * React to the faults raised since the last call, on the main thread before {@link ActuatorTable#commit()}.
+     * An action stays for {@link Constants.Health#holdTime} after its fault clears. A master and its
+     * followers share one actuator, it gets the strongest limit any of them asks for.
+     */
+    public static void apply() {
+        apply(Timer.getFPGATimestamp());
+        for (int i = 0; i < monitored.size(); i++) {
+            Monitored m = monitored.get(i);
+            if (m.published != m.reported) {
+                SmartDashboard.putString("Health " + m.name, describe(m.reported));
+                m.published = m.reported;
+            }
+        }
+    }
+
+    /**
+     * {@link #apply()} at a given time and without the dashboard, e.g. in a test.
+     *
+     * @param now seconds, only compared with earlier calls
+     */
+    public static void apply(double now) {
+        for (int i = 0; i < monitored.size(); i++) {
+            Monitored m = monitored.get(i);
+            int faults = m.faults;
+            Action action = m.action(faults);
+            if (action.compareTo(m.held) >= 0) {
+                m.held = action;
+                if (action != Action.NONE) {
+                    m.heldUntil = now + Constants.Health.holdTime;
+                }
+            } else if (now >= m.heldUntil) {
+                m.held = action;
+            }
+            m.limit = m.held == Action.STOP ? 0 : m.held == Action.DERATE ? Constants.Health.derate : 1;
+            if (faults != m.reported) {
+                String text = describe(faults);
+                System.out.println(String.format("[Health] %.3f %s: %s, %.0fA %.0f°C -> %s",
+                                                 now, m.name, text, m.averageCurrent, m.lastTemperature, m.held));
+                m.reported = faults;
+            }
+        }
+        for (int i = 0; i < monitored.size(); i++) {
+            ActuatorTable.Actuator output = monitored.get(i).output;
+            if (output == null || !firstOf(output, i)) {
+                continue;
+            }
+            double limit = 1;
+            for (int j = i; j < monitored.size(); j++) {
+                Monitored m = monitored.get(j);
+                if (m.output == output) {
+                    limit = Math.min(limit, m.limit);
+                }
+            }
+            if (output.getLimit() != limit) {
+                output.setLimit(limit);
+            }
+        }
+    }
+
+    /**
+     * @param name as registered
+     * @return faults raised by the last sample, {@link #STALL}, {@link #THERMAL} and {@link #SENSOR} bits
+     */
+    public static int getFaults(String name) {
+        for (int i = 0; i < monitored.size(); i++) {
+            if (monitored.get(i).name.equals(name)) {
+                return monitored.get(i).faults;
+            }
+        }
+        throw new IllegalArgumentException("Not monitored: " + name);
+    }
+
+    private static boolean firstOf(ActuatorTable.Actuator output, int index) {
+        for (int i = 0; i < index; i++) {
+            if (monitored.get(i).output == output) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String describe(int faults) {
+        if (faults == 0) {
+            return "OK";
+        }
+        StringBuilder text = new StringBuilder();
+        if ((faults & STALL) != 0) {
+            text.append("stall ");
+        }
+        if ((faults & THERMAL) != 0) {
+            text.append("thermal ");
+        }
+        if ((faults & SENSOR) != 0) {
+            text.append("sensor ");
+        }
+        return text.toString().trim();
+    }
+}
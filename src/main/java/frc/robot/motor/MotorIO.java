@@ -0,0 +1,70 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
+
+/**
+ * What subsystems need from a motor controller. {@link CtreMotorIO} on the robot,
+ * {@link FakeMotorIO} anywhere else. Units are the Talon's: native sensor units and per 100ms.
+ */
+public interface MotorIO {
+    /**
+     * @param mode        control mode
+     * @param demand      output, in the mode's units
+     * @param feedforward arbitrary feedforward [-1.0..1.0], 0 for none
+     */
+    void set(ControlMode mode, double demand, double feedforward);
+
+    /**
+     * @param master same kind of IO
+     */
+    void follow(MotorIO master);
+
+    /** neutral output */
+    void stop();
+
+    /**
+     * @param slot 閉迴控制位置(0,1,2,3)
+     */
+    void selectSlot(int slot);
+
+    /**
+     * @param position native units, doesn't wait for the device
+     */
+    void setPosition(double position);
+
+    /**
+     * Doesn't wait for the device, ignored without current sensing.
+     */
+    void setSupplyCurrentLimit(SupplyCurrentLimitConfiguration limit);
+
+    double getPosition();
+
+    double getVelocity();
+
+    /** [-1.0..1.0] */
+    double getOutputPercent();
+
+    double getOutputVoltage();
+
+    /** amps, 0 without current sensing */
+    double getSupplyCurrent();
+
+    /** amps, 0 without current sensing */
+    double getStatorCurrent();
+
+    /** °C */
+    double getTemperature();
+
+    /**
+     * @return false for a Victor SPX
+     */
+    boolean hasCurrentSensing();
+}
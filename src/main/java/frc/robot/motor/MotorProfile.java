@@ -0,0 +1,344 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import java.util.function.Consumer;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.FeedbackDevice;
+import com.ctre.phoenix.motorcontrol.InvertType;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
+import com.ctre.phoenix.motorcontrol.can.BaseTalon;
+import com.ctre.phoenix.motorcontrol.can.BaseTalonConfiguration;
+import com.ctre.phoenix.motorcontrol.can.SlotConfiguration;
+import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import com.ctre.phoenix.motorcontrol.can.TalonFXConfiguration;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+import com.ctre.phoenix.motorcontrol.can.TalonSRXConfiguration;
+
+/**
+ * Everything a Talon should be configured with, immutable so it can be shared and compared.
+ * Build one with {@link #builder(String)}, derive variants with {@link #toBuilder()}.
+ *
+ * <p>Only what was set on the builder is managed, the rest of the device config is left alone,
+ * e.g. the drivetrain supply current limit belongs to the power manager.
+ * {@link MotorBatch} reads the device config back and sends only what differs.
+ */
+public final class MotorProfile {
+    /**
+     * Gains of one closed loop slot.
+     */
+    public static final class Slot {
+        public final double kP;
+        public final double kI;
+        public final double kD;
+        public final double kF;
+
+        public Slot(double kP, double kI, double kD, double kF) {
+            this.kP = kP;
+            this.kI = kI;
+            this.kD = kD;
+            this.kF = kF;
+        }
+    }
+
+    public static final int SLOTS = 4;
+
+    public final String name;
+    /** null to leave it */
+    public final FeedbackDevice sensor;
+    public final InvertType inverted;
+    public final boolean sensorPhase;
+    private final Slot[] slots;
+    /** seconds from neutral to full, NaN to leave it */
+    public final double openloopRamp;
+    public final double closedloopRamp;
+    /** volts, NaN for no voltage compensation */
+    public final double voltageCompSaturation;
+    /** null to leave it */
+    public final SupplyCurrentLimitConfiguration supplyCurrentLimit;
+    /** native units, null to leave them */
+    public final Integer forwardSoftLimit;
+    public final Integer reverseSoftLimit;
+
+    private MotorProfile(Builder builder) {
+        name                  = builder.name;
+        sensor                = builder.sensor;
+        inverted              = builder.inverted;
+        sensorPhase           = builder.sensorPhase;
+        slots                 = builder.slots.clone();
+        openloopRamp          = builder.openloopRamp;
+        closedloopRamp        = builder.closedloopRamp;
+        voltageCompSaturation = builder.voltageCompSaturation;
+        supplyCurrentLimit    = builder.supplyCurrentLimit;
+        forwardSoftLimit      = builder.forwardSoftLimit;
+        reverseSoftLimit      = builder.reverseSoftLimit;
+    }
+
+    /**
+     * @param name for the boot report
+     * @return a builder that manages nothing yet
+     */
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * @return a builder starting from this profile
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder(name);
+        builder.sensor                = sensor;
+        builder.inverted              = inverted;
+        builder.sensorPhase           = sensorPhase;
+        builder.slots                 = slots.clone();
+        builder.openloopRamp          = openloopRamp;
+        builder.closedloopRamp        = closedloopRamp;
+        builder.voltageCompSaturation = voltageCompSaturation;
+        builder.supplyCurrentLimit    = supplyCurrentLimit;
+        builder.forwardSoftLimit      = forwardSoftLimit;
+        builder.reverseSoftLimit      = reverseSoftLimit;
+        return builder;
+    }
+
+    /**
+     * @param slot 閉迴控制位置(0,1,2,3)
+     * @return gains, null if the slot is left alone
+     */
+    public Slot getSlot(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Send what differs from the device's current config.
+     *
+     * @param motor     motor
+     * @param timeoutMs per read and per write
+     * @param errors    gets the result of every write
+     * @return config parameters sent, -1 if the config couldn't be read and everything was sent
+     */
+    int apply(TalonFX motor, int timeoutMs, Consumer<ErrorCode> errors) {
+        TalonFXConfiguration current = new TalonFXConfiguration();
+        boolean read = motor.getAllConfigs(current, timeoutMs).value == 0;
+        int sent = applyCommon(motor, current, read, timeoutMs, errors);
+        SupplyCurrentLimitConfiguration limit = supplyCurrentLimit;
+        if (limit != null && (!read
+                || current.supplyCurrLimit.enable != limit.enable
+                || !same(current.supplyCurrLimit.currentLimit, limit.currentLimit)
+                || !same(current.supplyCurrLimit.triggerThresholdCurrent, limit.triggerThresholdCurrent)
+                || !same(current.supplyCurrLimit.triggerThresholdTime, limit.triggerThresholdTime))) {
+            errors.accept(motor.configSupplyCurrentLimit(limit, timeoutMs));
+            sent++;
+        }
+        return read ? sent : -1;
+    }
+
+    /**
+     * Send what differs from the device's current config.
+     *
+     * @param motor     motor
+     * @param timeoutMs per read and per write
+     * @param errors    gets the result of every write
+     * @return config parameters sent, -1 if the config couldn't be read and everything was sent
+     */
+    int apply(TalonSRX motor, int timeoutMs, Consumer<ErrorCode> errors) {
+        TalonSRXConfiguration current = new TalonSRXConfiguration();
+        boolean read = motor.getAllConfigs(current, timeoutMs).value == 0;
+        int sent = applyCommon(motor, current, read, timeoutMs, errors);
+        SupplyCurrentLimitConfiguration limit = supplyCurrentLimit;
+        if (limit != null) {
+            // a Talon SRX keeps the supply limit as continuous/peak/duration, the enable isn't a config
+            if (!read
+                    || current.continuousCurrentLimit != (int) limit.currentLimit
+                    || current.peakCurrentLimit != (int) limit.triggerThresholdCurrent
+                    || current.peakCurrentDuration != (int) (limit.triggerThresholdTime * 1000)) {
+                errors.accept(motor.configSupplyCurrentLimit(limit, timeoutMs));
+                sent++;
+            }
+            motor.enableCurrentLimit(limit.enable);
+        }
+        return read ? sent : -1;
+    }
+
+    /**
+     * Parameters every Talon has, plus the control settings that aren't stored as config.
+     */
+    private int applyCommon(BaseTalon motor, BaseTalonConfiguration current, boolean read, int timeoutMs,
+                            Consumer<ErrorCode> errors) {
+        int sent = 0;
+        if (sensor != null && (!read || current.primaryPID.selectedFeedbackSensor.value != sensor.value)) {
+            errors.accept(motor.configSelectedFeedbackSensor(sensor, 0, timeoutMs));
+            sent++;
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            Slot slot = slots[i];
+            if (slot == null) {
+                continue;
+            }
+            SlotConfiguration now = slot(current, i);
+            if (!read || !same(now.kP, slot.kP)) {
+                errors.accept(motor.config_kP(i, slot.kP, timeoutMs));
+                sent++;
+            }
+            if (!read || !same(now.kI, slot.kI)) {
+                errors.accept(motor.config_kI(i, slot.kI, timeoutMs));
+                sent++;
+            }
+            if (!read || !same(now.kD, slot.kD)) {
+                errors.accept(motor.config_kD(i, slot.kD, timeoutMs));
+                sent++;
+            }
+            if (!read || !same(now.kF, slot.kF)) {
+                errors.accept(motor.config_kF(i, slot.kF, timeoutMs));
+                sent++;
+            }
+        }
+        if (!Double.isNaN(openloopRamp) && (!read || !same(current.openloopRamp, openloopRamp))) {
+            errors.accept(motor.configOpenloopRamp(openloopRamp, timeoutMs));
+            sent++;
+        }
+        if (!Double.isNaN(closedloopRamp) && (!read || !same(current.closedloopRamp, closedloopRamp))) {
+            errors.accept(motor.configClosedloopRamp(closedloopRamp, timeoutMs));
+            sent++;
+        }
+        if (!Double.isNaN(voltageCompSaturation)
+                && (!read || !same(current.voltageCompSaturation, voltageCompSaturation))) {
+            errors.accept(motor.configVoltageCompSaturation(voltageCompSaturation, timeoutMs));
+            sent++;
+        }
+        if (forwardSoftLimit != null) {
+            if (!read || current.forwardSoftLimitThreshold != forwardSoftLimit) {
+                errors.accept(motor.configForwardSoftLimitThreshold(forwardSoftLimit, timeoutMs));
+                sent++;
+            }
+            if (!read || !current.forwardSoftLimitEnable) {
+                errors.accept(motor.configForwardSoftLimitEnable(true, timeoutMs));
+                sent++;
+            }
+        }
+        if (reverseSoftLimit != null) {
+            if (!read || current.reverseSoftLimitThreshold != reverseSoftLimit) {
+                errors.accept(motor.configReverseSoftLimitThreshold(reverseSoftLimit, timeoutMs));
+                sent++;
+            }
+            if (!read || !current.reverseSoftLimitEnable) {
+                errors.accept(motor.configReverseSoftLimitEnable(true, timeoutMs));
+                sent++;
+            }
+        }
+        // not stored on the device, cheap, always sent
+        motor.setInverted(inverted);
+        motor.setSensorPhase(sensorPhase);
+        motor.enableVoltageCompensation(!Double.isNaN(voltageCompSaturation));
+        return sent;
+    }
+
+    private static SlotConfiguration slot(BaseTalonConfiguration config, int slot) {
+        switch (slot) {
+            case 0:  return config.slot0;
+            case 1:  return config.slot1;
+            case 2:  return config.slot2;
+            default: return config.slot3;
+        }
+    }
+
+    /**
+     * Gains come back from the device rounded to its fixed point.
+     */
+    private static boolean same(double device, double wanted) {
+        return Math.abs(device - wanted) <= 1e-4 + 1e-3 * Math.abs(wanted);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Mutable, only used to build a {@link MotorProfile}.
+     */
+    public static final class Builder {
+        private String name;
+        private FeedbackDevice sensor;
+        private InvertType inverted = InvertType.None;
+        private boolean sensorPhase;
+        private Slot[] slots = new Slot[SLOTS];
+        private double openloopRamp          = Double.NaN;
+        private double closedloopRamp        = Double.NaN;
+        private double voltageCompSaturation = Double.NaN;
+        private SupplyCurrentLimitConfiguration supplyCurrentLimit;
+        private Integer forwardSoftLimit;
+        private Integer reverseSoftLimit;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder sensor(FeedbackDevice sensor) {
+            this.sensor = sensor;
+            return this;
+        }
+
+        public Builder inverted(boolean inverted) {
+            return inverted(inverted ? InvertType.InvertMotorOutput : InvertType.None);
+        }
+
+        public Builder inverted(InvertType inverted) {
+            this.inverted = inverted;
+            return this;
+        }
+
+        public Builder sensorPhase(boolean sensorPhase) {
+            this.sensorPhase = sensorPhase;
+            return this;
+        }
+
+        /**
+         * @param slot 閉迴控制位置(0,1,2,3)
+         */
+        public Builder slot(int slot, double kP, double kI, double kD, double kF) {
+            slots[slot] = new Slot(kP, kI, kD, kF);
+            return this;
+        }
+
+        public Builder openloopRamp(double seconds) {
+            openloopRamp = seconds;
+            return this;
+        }
+
+        public Builder closedloopRamp(double seconds) {
+            closedloopRamp = seconds;
+            return this;
+        }
+
+        public Builder voltageCompSaturation(double volts) {
+            voltageCompSaturation = volts;
+            return this;
+        }
+
+        public Builder supplyCurrentLimit(SupplyCurrentLimitConfiguration limit) {
+            supplyCurrentLimit = limit;
+            return this;
+        }
+
+        public Builder softLimits(int forward, int reverse) {
+            forwardSoftLimit = forward;
+            reverseSoftLimit = reverse;
+            return this;
+        }
+
+        public MotorProfile build() {
+            return new MotorProfile(this);
+        }
+    }
+}
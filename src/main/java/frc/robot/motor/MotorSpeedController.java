@@ -0,0 +1,62 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * A {@link MotorIO} as a WPILib {@link SpeedController}, e.g. for a drive's motor safety stop.
+ */
+public final class MotorSpeedController implements SpeedController {
+    private final MotorIO motor;
+    private double speed;
+    private boolean inverted;
+
+    public MotorSpeedController(MotorIO motor) {
+        this.motor = motor;
+    }
+
+    @Override
+    public void set(double speed) {
+        this.speed = speed;
+        motor.set(ControlMode.PercentOutput, inverted ? -speed : speed, 0);
+    }
+
+    @Override
+    public double get() {
+        return speed;
+    }
+
+    @Override
+    public void setInverted(boolean isInverted) {
+        inverted = isInverted;
+    }
+
+    @Override
+    public boolean getInverted() {
+        return inverted;
+    }
+
+    @Override
+    public void disable() {
+        stopMotor();
+    }
+
+    @Override
+    public void stopMotor() {
+        speed = 0;
+        motor.stop();
+    }
+
+    @Override
+    public void pidWrite(double output) {
+        set(output);
+    }
+}
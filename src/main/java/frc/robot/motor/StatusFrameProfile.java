@@ -0,0 +1,51 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.motor;
+
+/**
+ * Status frame periods by what a motor controller is used for, in ms. Frames nobody reads go to the
+ * slowest period. Periods aren't stored on the device, they're back to default after a power cycle.
+ */
+public enum StatusFrameProfile {
+    /** closes a loop on its own sensor, we read position, velocity and current */
+    MASTER_CLOSED_LOOP(10, 20, 50, 160),
+    /** only follows, current and temperature for monitoring */
+    FOLLOWER(100, 255, 100, 255),
+    /** open loop output, nothing is read back */
+    OPEN_LOOP_ACTUATOR(20, 255, 255, 255),
+    /** open loop output, {@link MotorHealth} reads current and velocity, a Talon SRX sends its current in Status 2 */
+    MONITORED_ACTUATOR(20, 20, 20, 255),
+    /** open loop output, the sensor is read for the dashboard */
+    TELEMETRY_ONLY(20, 50, 255, 255);
+
+    /** every frame that isn't listed */
+    public static final int kSlowest = 255;
+
+    /** factory defaults, for the before/after report */
+    public static final int kDefaultGeneral     = 10;
+    public static final int kDefaultFeedback    = 20;
+    public static final int kDefaultCurrent     = 50;
+    public static final int kDefaultTemperature = 160;
+    public static final int kDefaultOther       = 160;
+
+    /** Status 1, output and faults */
+    public final int general;
+    /** Status 2, selected sensor position and velocity */
+    public final int feedback;
+    /** Talon FX current */
+    public final int current;
+    /** Status 4, temperature and bus voltage */
+    public final int temperature;
+
+    StatusFrameProfile(int general, int feedback, int current, int temperature) {
+        this.general     = general;
+        this.feedback    = feedback;
+        this.current     = current;
+        this.temperature = temperature;
+    }
+}
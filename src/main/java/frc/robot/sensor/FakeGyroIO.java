@@ -0,0 +1,73 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.sensor;
+
+import frc.robot.motor.MotorIO;
+
+/**
+ * In-memory {@link GyroIO} that turns with the difference of two drive sides.
+ * Time only moves on {@link #update(double)}, after the motors.
+ */
+public final class FakeGyroIO implements GyroIO {
+  private final MotorIO left;
+  private final MotorIO right;
+  private final double  metersPerNative;
+  private final double  trackWidth;
+  private double angle;
+  private double rate;
+
+  /**
+   * @param left            left master
+   * @param right           right master
+   * @param metersPerNative distance per sensor unit
+   * @param trackWidth      meters
+   */
+  public FakeGyroIO(MotorIO left, MotorIO right, double metersPerNative, double trackWidth) {
+    this.left            = left;
+    this.right           = right;
+    this.metersPerNative = metersPerNative;
+    this.trackWidth      = trackWidth;
+  }
+
+  /**
+   * @param dt seconds
+   */
+  public void update(double dt) {
+    // left faster than right turns clockwise, positive like the navX
+    double difference = (left.getVelocity() - right.getVelocity()) * metersPerNative * 10;
+    rate = Math.toDegrees(difference / trackWidth);
+    angle += rate * dt;
+  }
+
+  /**
+   * @param angle degrees
+   */
+  public void setAngle(double angle) {
+    this.angle = angle;
+  }
+
+  @Override
+  public double getAngle() {
+    return angle;
+  }
+
+  @Override
+  public double getYaw() {
+    return Math.IEEEremainder(angle, 360);
+  }
+
+  @Override
+  public double getRate() {
+    return rate;
+  }
+
+  @Override
+  public void reset() {
+    angle = 0;
+  }
+}
@@ -0,0 +1,25 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.sensor;
+
+/**
+ * What the drivetrain needs from the gyro. {@link NavXGyroIO} on the robot, {@link FakeGyroIO} anywhere else.
+ * Degrees, clockwise positive like the navX.
+ */
+public interface GyroIO {
+  /** continuous, doesn't wrap */
+  double getAngle();
+
+  /** [-180..180) */
+  double getYaw();
+
+  /** degrees per second */
+  double getRate();
+
+  void reset();
+}
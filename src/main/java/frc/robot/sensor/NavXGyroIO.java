@@ -0,0 +1,48 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.sensor;
+
+import com.kauailabs.navx.frc.AHRS;
+
+import edu.wpi.first.wpilibj.SPI;
+
+/**
+ * {@link GyroIO} on a navX.
+ */
+public final class NavXGyroIO implements GyroIO {
+  private final AHRS ahrs;
+
+  /**
+   * @param port         navX port
+   * @param updateRateHz navX update rate, 4 to 200
+   */
+  public NavXGyroIO(SPI.Port port, int updateRateHz) {
+    // the navX API takes it as a byte, read back unsigned
+    ahrs = new AHRS(port, (byte) updateRateHz);
+  }
+
+  @Override
+  public double getAngle() {
+    return ahrs.getAngle();
+  }
+
+  @Override
+  public double getYaw() {
+    return ahrs.getYaw();
+  }
+
+  @Override
+  public double getRate() {
+    return ahrs.getRate();
+  }
+
+  @Override
+  public void reset() {
+    ahrs.reset();
+  }
+}
@@ -0,0 +1,113 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.sensor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * Every sensor the main loop reads, sampled once at the start of the loop so all subsystems and
+ * commands see the same values within a cycle. One instance, overwritten in place every loop.
+ *
+ * <p>Main thread only. Notifiers (odometry, heading hold, characterization) run at their own rate
+ * and still read the devices themselves.
+ */
+public final class SensorFrame {
+  /**
+   * Fills its part of the frame.
+   */
+  public interface Sampler {
+    /**
+     * @param frame frame of this loop
+     * @return device reads made, for the call count
+     */
+    int sample(SensorFrame frame);
+  }
+
+  private static final SensorFrame   current  = new SensorFrame();
+  private static final List<Sampler> samplers = new ArrayList<>();
+
+  /** FPGA seconds at the start of the loop */
+  public double timestamp;
+
+  // drivetrain masters, native units
+  public double driveTimestamp;
+  public double leftPosition;
+  public double rightPosition;
+  public double leftVelocity;
+  public double rightVelocity;
+  /** all four Falcons, amps */
+  public double driveSupplyCurrent;
+
+  // navX, degrees, clockwise positive
+  public double gyroAngle;
+  public double gyroYaw;
+  public double gyroRate;
+
+  // flywheel, native units
+  public double shooterTimestamp;
+  public double flywheelVelocity;
+  public double flywheelVoltage;
+
+  // tower, native units
+  public double towerTimestamp;
+  public double towerPosition;
+  public double towerVelocity;
+
+  /** device reads made by the last {@link #sample()} */
+  public int reads;
+
+  private SensorFrame() {
+  }
+
+  /**
+   * @return the frame of this loop
+   */
+  public static SensorFrame get() {
+    return current;
+  }
+
+  /**
+   * @param sampler called on every {@link #sample()}, in registration order
+   */
+  public static void register(Sampler sampler) {
+    samplers.add(sampler);
+  }
+
+  /**
+   * Forget every sampler and zero the frame, e.g. between tests that create subsystems.
+   */
+  public static void reset() {
+    samplers.clear();
+    SensorFrame frame = current;
+    frame.timestamp = frame.driveTimestamp = frame.shooterTimestamp = frame.towerTimestamp = 0;
+    frame.leftPosition = frame.rightPosition = frame.leftVelocity = frame.rightVelocity = 0;
+    frame.driveSupplyCurrent = frame.gyroAngle = frame.gyroYaw = frame.gyroRate = 0;
+    frame.flywheelVelocity = frame.flywheelVoltage = frame.towerPosition = frame.towerVelocity = 0;
+    frame.reads = 0;
+  }
+
+  /**
+   * Read every sensor, call once at the start of robotPeriodic.
+   */
+  public static void sample() {
+    long start = System.nanoTime();
+    SensorFrame frame = current;
+    frame.timestamp = Timer.getFPGATimestamp();
+    int reads = 0;
+    for (int i = 0; i < samplers.size(); i++) {
+      reads += samplers.get(i).sample(frame);
+    }
+    frame.reads = reads;
+    SmartDashboard.putNumber("Sensor reads per loop", reads);
+    SmartDashboard.putNumber("Sensor sample ms", (System.nanoTime() - start) / 1e6);
+  }
+}
@@ -0,0 +1,133 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.hal.can.CANStatus;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CanLoad;
+
+/**
+ * How loaded the CAN bus is. Samples the roboRIO's bus status every {@link Constants.CanMonitor#samplePeriod},
+ * keeps a rolling average and peak, and next to it our own estimate per motor controller: status frames from
+ * the periods we set and control frames, plus how often we call set() on each one.
+ * Publishes every {@link Constants.CanMonitor#publishPeriod} and raises an alert when the average is too high.
+ */
+public class CanMonitor extends SubsystemBase {
+  private final double[] utilization = new double[Constants.CanMonitor.window];
+  private final int[]    txErrors    = new int[Constants.CanMonitor.window];
+  private final int[]    rxErrors    = new int[Constants.CanMonitor.window];
+  private int samples;
+  private int next;
+
+  private int busOffCount;
+  private int txFullCount;
+
+  // ActuatorTable sent counts at the last publish
+  private long[]  writes = new long[0];
+  private double  lastPublish = Double.NaN;
+  private double  lastSample  = Double.NEGATIVE_INFINITY;
+  private boolean alert;
+
+  @Override
+  public void periodic() {
+    double now = Timer.getFPGATimestamp();
+    if (now - lastSample < Constants.CanMonitor.samplePeriod) {
+      return;
+    }
+    lastSample = now;
+    sample();
+    if (Double.isNaN(lastPublish)) {
+      lastPublish = now;
+      writes = sentCounts();
+    } else if (now - lastPublish >= Constants.CanMonitor.publishPeriod) {
+      publish(now - lastPublish);
+      lastPublish = now;
+    }
+  }
+
+  private void sample() {
+    CANStatus status = RobotController.getCANStatus();
+    utilization[next] = status.percentBusUtilization;
+    txErrors[next]    = status.transmitErrorCount;
+    rxErrors[next]    = status.receiveErrorCount;
+    next = (next + 1) % utilization.length;
+    samples = Math.min(samples + 1, utilization.length);
+    if (status.busOffCount != busOffCount) {
+      System.out.println(String.format("[CAN] %.3f bus off, %d times since boot",
+                                       Timer.getFPGATimestamp(), status.busOffCount));
+    }
+    busOffCount = status.busOffCount;
+    txFullCount = status.txFullCount;
+  }
+
+  private void publish(double dt) {
+    double sum  = 0;
+    double peak = 0;
+    int txPeak = 0;
+    int rxPeak = 0;
+    for (int i = 0; i < samples; i++) {
+      sum   += utilization[i];
+      peak   = Math.max(peak, utilization[i]);
+      txPeak = Math.max(txPeak, txErrors[i]);
+      rxPeak = Math.max(rxPeak, rxErrors[i]);
+    }
+    double average = samples == 0 ? 0 : sum / samples;
+
+    boolean nextAlert = alert
+        ? average > Constants.CanMonitor.alertUtilization - Constants.CanMonitor.alertHysteresis
+        : average > Constants.CanMonitor.alertUtilization;
+    if (nextAlert != alert) {
+      System.out.println(String.format("[CAN] %.3f utilization %.0f%% average, %.0f%% peak, alert %s",
+                                       Timer.getFPGATimestamp(), average * 100, peak * 100,
+                                       nextAlert ? "raised" : "cleared"));
+      alert = nextAlert;
+    }
+
+    SmartDashboard.putNumber("CAN utilization %",      average * 100);
+    SmartDashboard.putNumber("CAN utilization peak %", peak * 100);
+    SmartDashboard.putNumber("CAN tx errors peak",     txPeak);
+    SmartDashboard.putNumber("CAN rx errors peak",     rxPeak);
+    SmartDashboard.putNumber("CAN bus off",            busOffCount);
+    SmartDashboard.putNumber("CAN tx full",            txFullCount);
+    SmartDashboard.putBoolean("CAN alert",             alert);
+
+    // our side of it: what the motor controllers should be sending and receiving
+    double estimated = CanLoad.getFramesPerSecond();
+    SmartDashboard.putNumber("CAN motors frames/s", estimated);
+    SmartDashboard.putNumber("CAN motors %",        CanLoad.utilization(estimated) * 100);
+    for (int i = 0; i < CanLoad.size(); i++) {
+      SmartDashboard.putNumber("CAN frames/s " + CanLoad.getName(i), CanLoad.getFramesPerSecond(i));
+    }
+    long[] sent = sentCounts();
+    for (int i = 0; i < sent.length; i++) {
+      long before = i < writes.length ? writes[i] : 0;
+      SmartDashboard.putNumber("CAN writes/s " + ActuatorTable.get(i).name, (sent[i] - before) / dt);
+    }
+    writes = sent;
+  }
+
+  private static long[] sentCounts() {
+    long[] sent = new long[ActuatorTable.size()];
+    for (int i = 0; i < sent.length; i++) {
+      sent[i] = ActuatorTable.get(i).getSent();
+    }
+    return sent;
+  }
+
+  /**
+   * @return true while the average utilization is over {@link Constants.CanMonitor#alertUtilization}
+   */
+  public boolean isAlert() {
+    return alert;
+  }
+}
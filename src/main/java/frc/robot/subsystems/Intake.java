@@ -8,7 +8,15 @@
 package frc.robot.subsystems;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CtreMotorIO;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorHealth;
+import frc.robot.motor.MotorHealth.Action;
+import frc.robot.motor.MotorIO;
+import frc.robot.motor.StatusFrameProfile;
 
 import frc.robot.subsystems.shooter.Spinable;
 
@@ -16,24 +24,40 @@ import frc.robot.subsystems.shooter.Spinable;
  * Add your docs here.
  */
 public class Intake extends Spinable{
-    private final WPI_TalonSRX intake = new WPI_TalonSRX(10);
+    private final MotorIO intake;
+    private final ActuatorTable.Actuator output;
     
     public Intake(){
-        intake.configFactoryDefault();
+        this(CtreMotorIO.talonSRX(10));
+    }
+
+    /**
+     * @param intake e.g. a {@link frc.robot.motor.FakeMotorIO} off the robot
+     */
+    public Intake(MotorIO intake){
+        this.intake = intake;
+        output = ActuatorTable.register("intake", intake);
+        new MotorBatch("Intake")
+            .add(intake)
+            .then(intake, BaseMotorController::configFactoryDefault)
+            .statusFrames(intake, StatusFrameProfile.MONITORED_ACTUATOR)
+            .apply();
+        // no encoder, a stall is high current alone
+        MotorHealth.register("intake", intake, output, false, Action.STOP, Action.DERATE, Action.NONE);
     }
     @Override
     public void forward() {
-        intake.set(ControlMode.PercentOutput, 0.7);
+        output.set(ControlMode.PercentOutput, 0.7);
     }
 
     @Override
     public void stop() {
-        intake.set(ControlMode.PercentOutput, 0);
+        output.set(ControlMode.PercentOutput, 0);
 
     }
 
     @Override
     public void reverse() {
-        intake.set(ControlMode.PercentOutput, -0.7);
+        output.set(ControlMode.PercentOutput, -0.7);
     }
 }
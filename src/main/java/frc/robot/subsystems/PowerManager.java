@@ -0,0 +1,142 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.wpilibj.PowerDistributionPanel;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants;
+import frc.robot.subsystems.chassis.Drivetrain;
+import frc.robot.subsystems.chassis.DrivetrainBase;
+import frc.robot.subsystems.pneumatic.Pneumatic;
+import frc.robot.subsystems.shooter.Shooter;
+
+/**
+ * Splits the battery between mechanisms by priority so shooting while accelerating doesn't brown out.
+ * Every loop reads battery voltage and total current from the PDP, picks a budget, and only when the
+ * budget changes applies it (drivetrain max output, Falcon supply current limit, compressor) and logs why.
+ */
+public class PowerManager extends SubsystemBase {
+  /**
+   * How close the battery is to a brownout.
+   */
+  public enum Level {
+    NORMAL(Constants.Power.normalMaxOutput,     Constants.Power.normalDriveCurrent),
+    LOW(Constants.Power.lowMaxOutput,           Constants.Power.lowDriveCurrent),
+    CRITICAL(Constants.Power.criticalMaxOutput, Constants.Power.criticalDriveCurrent);
+
+    final double maxOutput;
+    final double driveCurrent;
+
+    Level(double maxOutput, double driveCurrent) {
+      this.maxOutput    = maxOutput;
+      this.driveCurrent = driveCurrent;
+    }
+  }
+
+  private final PowerDistributionPanel pdp = new PowerDistributionPanel();
+  private final Shooter shooter;
+  private final Drivetrain drivetrain;
+
+  private Level level;
+  private boolean shooting;
+  private double relaxSince = Double.NaN;
+  private int decisions;
+
+  /**
+   * Creates a new PowerManager.
+   *
+   * @param shooter    has priority while it's running
+   * @param drivetrain gets what's left
+   */
+  public PowerManager(Shooter shooter, Drivetrain drivetrain) {
+    this.shooter    = shooter;
+    this.drivetrain = drivetrain;
+  }
+
+  @Override
+  public void periodic() {
+    double voltage = pdp.getVoltage();
+    double current = pdp.getTotalCurrent();
+    double now     = Timer.getFPGATimestamp();
+    boolean nowShooting = shooter.getCurrentCommand() != null;
+
+    Level measured = measure(voltage, current);
+    Level next = level;
+    if (level == null || measured.compareTo(level) > 0) {
+      // getting worse is applied right away
+      next = measured;
+      relaxSince = Double.NaN;
+    } else if (measured.compareTo(level) < 0) {
+      // getting better has to last, or lowering the limits would bring the current right back
+      if (Double.isNaN(relaxSince)) {
+        relaxSince = now;
+      } else if (now - relaxSince >= Constants.Power.relaxDelay) {
+        next = measured;
+        relaxSince = Double.NaN;
+      }
+    } else {
+      relaxSince = Double.NaN;
+    }
+
+    if (next != level || nowShooting != shooting) {
+      apply(next, nowShooting, voltage, current, now);
+    }
+
+    SmartDashboard.putNumber("Battery voltage", voltage);
+    SmartDashboard.putNumber("Total current", current);
+  }
+
+  /**
+   * Level from this loop alone, with hysteresis around the current level.
+   */
+  private Level measure(double voltage, double current) {
+    double up = level == null || level == Level.NORMAL ? 0 : Constants.Power.voltageHysteresis;
+    if (voltage < Constants.Power.criticalVoltage + (level == Level.CRITICAL ? up : 0)) {
+      return Level.CRITICAL;
+    }
+    if (voltage < Constants.Power.lowVoltage + up || current > Constants.Power.highTotalCurrent) {
+      return Level.LOW;
+    }
+    return Level.NORMAL;
+  }
+
+  private void apply(Level level, boolean shooting, double voltage, double current, double now) {
+    double maxOutput    = level.maxOutput;
+    double driveCurrent = level.driveCurrent;
+    if (shooting) {
+      maxOutput    = Math.min(maxOutput, Constants.Power.shootingMaxOutput);
+      driveCurrent = Math.min(driveCurrent, Constants.Power.shootingDriveCurrent);
+    }
+    // the compressor can always wait
+    boolean compressor = level == Level.NORMAL && !shooting;
+
+    drivetrain.teleop().setMaxOutput(maxOutput);
+    DrivetrainBase.setSupplyCurrentLimit(driveCurrent);
+    Pneumatic.setCompressorEnabled(compressor);
+
+    decisions++;
+    System.out.println(String.format(
+        "[Power] %.3f %s%s: %.2fV %.1fA -> drive output %.2f, drive limit %.0fA, compressor %s",
+        now, level, shooting ? " shooting" : "", voltage, current,
+        maxOutput, driveCurrent, compressor ? "on" : "paused"));
+    SmartDashboard.putString("Power level", level + (shooting ? " shooting" : ""));
+    SmartDashboard.putNumber("Power drive output", maxOutput);
+    SmartDashboard.putNumber("Power drive limit", driveCurrent);
+    SmartDashboard.putBoolean("Power compressor", compressor);
+    SmartDashboard.putNumber("Power decisions", decisions);
+
+    this.level    = level;
+    this.shooting = shooting;
+  }
+
+  public Level getLevel() {
+    return level;
+  }
+}
@@ -7,27 +7,177 @@
 
 package frc.robot.subsystems.chassis;
 
-import edu.wpi.first.wpilibj.SpeedControllerGroup;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants;
+import frc.robot.motor.MotorSpeedController;
+import frc.robot.sensor.SensorFrame;
+import frc.robot.subsystems.chassis.characterization.DriveCharacteristics;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 
+/**
+ * Teleop mode of {@link Drivetrain}, open loop or closed loop.
+ */
 public class ControlDrivetrain extends DrivetrainBase {
-  private DifferentialDrive chassis = new DifferentialDrive(new SpeedControllerGroup(leftMas, leftFol), 
-                                                            new SpeedControllerGroup(rightMas, rightFol));
-    
+  // native velocity unit (pulses / 100ms) per m/s
+  private static final double NATIVE_PER_MPS = 1 / Constants.Motor.distancePerPulse / 10;
+
+  // Masters only, the followers already follow them. Setting a follower would also take it out of follower mode.
+  // Only mixes and keeps the motor safety watchdog, outputs go through DrivetrainBase.output.
+  private DifferentialDrive chassis = new DifferentialDrive(new MotorSpeedController(leftMas),
+                                                            new MotorSpeedController(rightMas));
+  private final WheelOutput output = new WheelOutput();
+  private final DriveCharacteristics characteristics = DriveCharacteristics.get();
+  private final HeadingHold headingHold = new HeadingHold(gyro);
+  private boolean closedLoop;
+  private boolean headingHoldEnabled = true;
+  private double deadband = 0.08;
+  private double lastLeftVelocity;
+  private double lastRightVelocity;
+  // peak total supply current, split by whether teleop input was rate limited
+  private double peakShapedCurrent;
+  private double peakRawCurrent;
+
   public ControlDrivetrain(){
     chassis.setQuickStopAlpha(0.1);
     chassis.setQuickStopThreshold(0.1);
-    chassis.setDeadband(0.08);
+    chassis.setDeadband(deadband);
+  }
+
+  /**
+   * Start heading hold, see {@link Drivetrain#start()}.
+   */
+  void start(){
+    headingHold.start();
+  }
+
+  /**
+   * Set by {@link Drivetrain#setMode}.
+   *
+   * @param closedLoop outputs are a fraction of {@link Constants.Motor#teleopMaxVelocity}, closed loop on
+   *                   the Talons, instead of a fraction of the compensated voltage
+   */
+  void setClosedLoop(boolean closedLoop){
+    this.closedLoop = closedLoop;
+    // no acceleration feedforward for the jump from whatever the wheels were doing
+    lastLeftVelocity  = Double.NaN;
+    lastRightVelocity = Double.NaN;
+  }
+
+  /**
+   * Feed the motor safety watchdog, the outputs were written by something else.
+   */
+  void feed(){
+    chassis.feed();
+  }
+
+  /**
+   * @param deadband DifferentialDrive deadband, applied after any input shaping
+   */
+  public void setDeadband(double deadband){
+    this.deadband = deadband;
+    chassis.setDeadband(deadband);
+  }
+
+  /**
+   * @param maxOutput scale of teleop outputs [0..1], e.g. from the power budget
+   */
+  public void setMaxOutput(double maxOutput){
+    chassis.setMaxOutput(maxOutput);
+  }
+
+  /**
+   * @param enabled keep the heading with the gyro while driving without turning
+   */
+  public void setHeadingHold(boolean enabled){
+    headingHoldEnabled = enabled;
   }
+
+  /**
+   * Track the peak drivetrain supply current, to compare driving with and without input shaping.
+   *
+   * @param shaped true if the inputs this loop were slew limited
+   */
+  public void recordCurrent(boolean shaped){
+    double current = SensorFrame.get().driveSupplyCurrent;
+    if(shaped){
+      peakShapedCurrent = Math.max(peakShapedCurrent, current);
+      SmartDashboard.putNumber("Drive peak current shaped", peakShapedCurrent);
+    }else{
+      peakRawCurrent = Math.max(peakRawCurrent, current);
+      SmartDashboard.putNumber("Drive peak current raw", peakRawCurrent);
+    }
+    SmartDashboard.putNumber("Drive current", current);
+  }
+
   public void drive(double speed, double turn){
-      leftMas.set(ControlMode.PercentOutput,speed+turn);
-      rightMas.set(ControlMode.PercentOutput,speed-turn);
+      if(closedLoop){
+        setVelocity(speed + turn, speed - turn);
+      }else{
+        output(ControlMode.PercentOutput, speed + turn, speed - turn);
+      }
       SmartDashboard.putNumber("speed",speed);
       SmartDashboard.putNumber("turn",turn);
   }
   public void curvatureDrive(double xSpeed, double zRotation, boolean isQuickTurn){
-    chassis.curvatureDrive(xSpeed * 0.5, zRotation * 0.5, isQuickTurn);
-  } 
+    xSpeed    *= 0.5;
+    zRotation *= 0.5;
+    // hold the heading while driving without turning, the stick would be inside the deadband anyway
+    boolean hold = headingHoldEnabled && !isQuickTurn
+                && Math.abs(zRotation) <= deadband && Math.abs(xSpeed) > deadband;
+    headingHold.setHold(hold);
+    chassis.curvatureDrive(xSpeed, zRotation, isQuickTurn, output);
+    if(hold){
+      chassis.addRotation(headingHold.getCorrection(), output);
+    }
+    if(closedLoop){
+      setVelocity(output.left, output.right);
+    }else{
+      output(ControlMode.PercentOutput, output.left, output.right);
+    }
+  }
+
+  /**
+   * Heading hold state for the dashboard.
+   */
+  public void message(){
+    SmartDashboard.putBoolean("Heading latched", headingHold.isLatched());
+    SmartDashboard.putNumber("Heading hold error", headingHold.getTarget() - SensorFrame.get().gyroAngle);
+    SmartDashboard.putNumber("Heading hold correction", headingHold.getCorrection());
+  }
+
+  /**
+   * Send teleop outputs as wheel velocities, with the feedforward of the drivetrain model as
+   * arbitrary feedforward, so the same stick gives the same speed and acceleration at any battery voltage.
+   *
+   * @param left  left output [-1.0..1.0]
+   * @param right right output [-1.0..1.0]
+   */
+  private void setVelocity(double left, double right){
+    double leftVelocity  = left  * Constants.Motor.teleopMaxVelocity;
+    double rightVelocity = right * Constants.Motor.teleopMaxVelocity;
+    double leftAcceleration  = acceleration(leftVelocity, lastLeftVelocity);
+    double rightAcceleration = acceleration(rightVelocity, lastRightVelocity);
+    lastLeftVelocity  = leftVelocity;
+    lastRightVelocity = rightVelocity;
+
+    selectSlot(Constants.Motor.teleopVelocitySlot);
+    output(ControlMode.Velocity, leftVelocity * NATIVE_PER_MPS, rightVelocity * NATIVE_PER_MPS,
+           feedforward(leftVelocity, leftAcceleration), feedforward(rightVelocity, rightAcceleration));
+  }
+
+  private static double acceleration(double velocity, double lastVelocity){
+    return Double.isNaN(lastVelocity) ? 0 : (velocity - lastVelocity) / TimedRobot.kDefaultPeriod;
+  }
+
+  /**
+   * Feedforward as a fraction of the compensation voltage, which is what arbitrary feedforward takes.
+   */
+  private double feedforward(double velocity, double acceleration){
+    double volts = characteristics.kS * Math.signum(velocity)
+                 + characteristics.kV * velocity
+                 + characteristics.kA * acceleration;
+    return volts / Constants.Motor.voltageCompSaturation;
+  }
 }
@@ -18,7 +18,6 @@ import edu.wpi.first.wpilibj.SpeedControllerGroup;
 import edu.wpi.first.wpilibj.drive.RobotDriveBase;
 import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
 import edu.wpi.first.wpilibj.smartdashboard.SendableRegistry;
-import edu.wpi.first.wpiutil.math.MathUtil;
 
 public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoCloseable {
   public static final double kDefaultQuickStopThreshold = 0.2;
@@ -29,11 +28,9 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
   private final SpeedController m_leftMotor;
   private final SpeedController m_rightMotor;
 
-  private double m_quickStopThreshold = kDefaultQuickStopThreshold;
-  private double m_quickStopAlpha = kDefaultQuickStopAlpha;
-  private double m_quickStopAccumulator;
-  /* This will invert motor output **/
-  private double m_rightSideInvertMultiplier = 1.0;
+  // Mixing lives in DriveMixer, this class only writes the result to the motors
+  private final DriveMixer m_mixer = new DriveMixer();
+  private final WheelOutput m_output = new WheelOutput();
   private boolean m_reported;
 
   /**
@@ -109,47 +106,9 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
       m_reported = true;
     }
 
-    xSpeed = MathUtil.clamp(xSpeed, -1.0, 1.0);
-    xSpeed = applyDeadband(xSpeed, m_deadband);
-
-    zRotation = MathUtil.clamp(zRotation, -1.0, 1.0);
-    zRotation = applyDeadband(zRotation, m_deadband);
-
-    // Square the inputs (while preserving the sign) to increase fine control
-    // while permitting full power.
-    if (squareInputs) {
-      xSpeed = Math.copySign(xSpeed * xSpeed, xSpeed);
-      zRotation = Math.copySign(zRotation * zRotation, zRotation);
-    }
-
-    double leftMotorOutput;
-    double rightMotorOutput;
-
-    double maxInput = Math.copySign(Math.max(Math.abs(xSpeed), Math.abs(zRotation)), xSpeed);
-
-    if (xSpeed >= 0.0) {
-      // First quadrant, else second quadrant
-      if (zRotation >= 0.0) {
-        leftMotorOutput = maxInput;
-        rightMotorOutput = xSpeed - zRotation;
-      } else {
-        leftMotorOutput = xSpeed + zRotation;
-        rightMotorOutput = maxInput;
-      }
-    } else {
-      // Third quadrant, else fourth quadrant
-      if (zRotation >= 0.0) {
-        leftMotorOutput = xSpeed + zRotation;
-        rightMotorOutput = maxInput;
-      } else {
-        leftMotorOutput = maxInput;
-        rightMotorOutput = xSpeed - zRotation;
-      }
-    }
-
-    m_leftMotor.set(MathUtil.clamp(leftMotorOutput, -1.0, 1.0) * m_maxOutput);
-    double maxOutput = m_maxOutput * m_rightSideInvertMultiplier;
-    m_rightMotor.set(MathUtil.clamp(rightMotorOutput, -1.0, 1.0) * maxOutput);
+    m_mixer.arcade(xSpeed, zRotation, squareInputs, m_output);
+    m_leftMotor.set(m_output.left);
+    m_rightMotor.set(m_output.right);
 
     feed();
   }
@@ -176,68 +135,40 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
       m_reported = true;
     }
 
-    xSpeed = MathUtil.clamp(xSpeed, -1.0, 1.0);
-    xSpeed = applyDeadband(xSpeed, m_deadband);
-
-    zRotation = MathUtil.clamp(zRotation, -1.0, 1.0);
-    zRotation = applyDeadband(zRotation, m_deadband);
-
-    double angularPower;
-    boolean overPower;
-
-    if (isQuickTurn) {
-      if (Math.abs(xSpeed) < m_quickStopThreshold) {
-        m_quickStopAccumulator = (1 - m_quickStopAlpha) * m_quickStopAccumulator
-            + m_quickStopAlpha * MathUtil.clamp(zRotation, -1.0, 1.0) * 2;
-      }
-      overPower = true;
-      angularPower = zRotation;
-    } else {
-      overPower = false;
-      angularPower = Math.abs(xSpeed) * zRotation - m_quickStopAccumulator;
-
-      if (m_quickStopAccumulator > 1) {
-        m_quickStopAccumulator -= 1;
-      } else if (m_quickStopAccumulator < -1) {
-        m_quickStopAccumulator += 1;
-      } else {
-        m_quickStopAccumulator = 0.0;
-      }
-    }
-
-    double leftMotorOutput = xSpeed - angularPower;
-    double rightMotorOutput = xSpeed + angularPower;
-
-    // If rotation is overpowered, reduce both outputs to within acceptable range
-    if (overPower) {
-      if (leftMotorOutput > 1.0) {
-        rightMotorOutput -= leftMotorOutput - 1.0;
-        leftMotorOutput = 1.0;
-      } else if (rightMotorOutput > 1.0) {
-        leftMotorOutput -= rightMotorOutput - 1.0;
-        rightMotorOutput = 1.0;
-      } else if (leftMotorOutput < -1.0) {
-        rightMotorOutput -= leftMotorOutput + 1.0;
-        leftMotorOutput = -1.0;
-      } else if (rightMotorOutput < -1.0) {
-        leftMotorOutput -= rightMotorOutput + 1.0;
-        rightMotorOutput = -1.0;
-      }
-    }
-
-    // Normalize the wheel speeds
-    double maxMagnitude = Math.max(Math.abs(leftMotorOutput), Math.abs(rightMotorOutput));
-    if (maxMagnitude > 1.0) {
-      leftMotorOutput /= maxMagnitude;
-      rightMotorOutput /= maxMagnitude;
-    }
+    m_mixer.curvature(xSpeed, zRotation, isQuickTurn, m_output);
+    m_leftMotor.set(m_output.left);
+    m_rightMotor.set(m_output.right);
 
-    m_leftMotor.set(leftMotorOutput * -m_maxOutput);
-    m_rightMotor.set(rightMotorOutput * -m_maxOutput * m_rightSideInvertMultiplier);
+    feed();
+  }
 
+  /**
+   * Curvature drive without writing the motors, e.g. to send the outputs as velocities instead.
+   * Still feeds the motor safety watchdog.
+   *
+   * @param xSpeed      The robot's speed along the X axis [-1.0..1.0]. Forward is positive.
+   * @param zRotation   The robot's rotation rate around the Z axis [-1.0..1.0]. Clockwise is
+   *                    positive.
+   * @param isQuickTurn If set, overrides constant-curvature turning for
+   *                    turn-in-place maneuvers.
+   * @param out         receives what {@link #curvatureDrive(double, double, boolean)} would set
+   */
+  public void curvatureDrive(double xSpeed, double zRotation, boolean isQuickTurn, WheelOutput out) {
+    m_mixer.curvature(xSpeed, zRotation, isQuickTurn, out);
     feed();
   }
 
+  /**
+   * Adds a rotation on top of {@link #curvatureDrive(double, double, boolean, WheelOutput)},
+   * see {@link DriveMixer#addRotation}.
+   *
+   * @param rotation rotation [-1.0..1.0], clockwise is positive
+   * @param out      outputs of curvature drive, updated in place
+   */
+  public void addRotation(double rotation, WheelOutput out) {
+    m_mixer.addRotation(rotation, out);
+  }
+
   /**
    * Tank drive method for differential drive platform.
    * The calculated values will be squared to decrease sensitivity at low speeds.
@@ -267,21 +198,9 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
       m_reported = true;
     }
 
-    leftSpeed = MathUtil.clamp(leftSpeed, -1.0, 1.0);
-    leftSpeed = applyDeadband(leftSpeed, m_deadband);
-
-    rightSpeed = MathUtil.clamp(rightSpeed, -1.0, 1.0);
-    rightSpeed = applyDeadband(rightSpeed, m_deadband);
-
-    // Square the inputs (while preserving the sign) to increase fine control
-    // while permitting full power.
-    if (squareInputs) {
-      leftSpeed = Math.copySign(leftSpeed * leftSpeed, leftSpeed);
-      rightSpeed = Math.copySign(rightSpeed * rightSpeed, rightSpeed);
-    }
-
-    m_leftMotor.set(leftSpeed * m_maxOutput);
-    m_rightMotor.set(rightSpeed * m_maxOutput * m_rightSideInvertMultiplier);
+    m_mixer.tank(leftSpeed, rightSpeed, squareInputs, m_output);
+    m_leftMotor.set(m_output.left);
+    m_rightMotor.set(m_output.right);
 
     feed();
   }
@@ -300,7 +219,7 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
    *                  [0..1.0].
    */
   public void setQuickStopThreshold(double threshold) {
-    m_quickStopThreshold = threshold;
+    m_mixer.setQuickStopThreshold(threshold);
   }
 
   /**
@@ -314,7 +233,7 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
    *              above 2.0 are unstable.  So maybe [0, 1]
    */
   public void setQuickStopAlpha(double alpha) {
-    m_quickStopAlpha = alpha;
+    m_mixer.setQuickStopAlpha(alpha);
   }
 
   /**
@@ -323,7 +242,7 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
    * @return true if the right side is inverted
    */
   public boolean isRightSideInverted() {
-    return m_rightSideInvertMultiplier == -1.0;
+    return m_mixer.isRightSideInverted();
   }
 
   /**
@@ -332,7 +251,19 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
    * @param rightSideInverted true if right side power should be multipled by -1
    */
   public void setRightSideInverted(boolean rightSideInverted) {
-    m_rightSideInvertMultiplier = rightSideInverted ? -1.0 : 1.0;
+    m_mixer.setRightSideInverted(rightSideInverted);
+  }
+
+  @Override
+  public void setDeadband(double deadband) {
+    super.setDeadband(deadband);
+    m_mixer.setDeadband(deadband);
+  }
+
+  @Override
+  public void setMaxOutput(double maxOutput) {
+    super.setMaxOutput(maxOutput);
+    m_mixer.setMaxOutput(maxOutput);
   }
 
   @Override
@@ -355,7 +286,7 @@ public class DifferentialDrive extends RobotDriveBase implements Sendable, AutoC
     builder.addDoubleProperty("Left Motor Speed", m_leftMotor::get, m_leftMotor::set);
     builder.addDoubleProperty(
         "Right Motor Speed",
-        () -> m_rightMotor.get() * m_rightSideInvertMultiplier,
-        x -> m_rightMotor.set(x * m_rightSideInvertMultiplier));
+        () -> m_rightMotor.get() * (m_mixer.isRightSideInverted() ? -1.0 : 1.0),
+        x -> m_rightMotor.set(x * (m_mixer.isRightSideInverted() ? -1.0 : 1.0)));
   }
 }
@@ -0,0 +1,198 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis;
+
+/**
+ * The arcade, curvature and tank mixing of {@link DifferentialDrive}, without the motors.
+ * Writes into a {@link WheelOutput}, doesn't allocate and doesn't touch HAL.
+ *
+ * <p>The arithmetic is the same as WPILib's DifferentialDrive, operation for operation, so the outputs
+ * are the same bits. Only the control flow is flattened: clamps are min/max, the deadband is one
+ * comparison, and arcade's four quadrants are two cases.
+ */
+public final class DriveMixer {
+  public static final double kDefaultDeadband  = 0.02;
+  public static final double kDefaultMaxOutput = 1.0;
+
+  private double deadband  = kDefaultDeadband;
+  private double maxOutput = kDefaultMaxOutput;
+  private double rightSideInvertMultiplier = 1.0;
+  private double quickStopThreshold = DifferentialDrive.kDefaultQuickStopThreshold;
+  private double quickStopAlpha     = DifferentialDrive.kDefaultQuickStopAlpha;
+  private double quickStopAccumulator;
+
+  /**
+   * Arcade drive.
+   *
+   * @param xSpeed       The robot's speed along the X axis [-1.0..1.0]. Forward is positive.
+   * @param zRotation    The robot's rotation rate around the Z axis [-1.0..1.0]. Clockwise is positive.
+   * @param squareInputs If set, decreases the input sensitivity at low speeds.
+   * @param out          receives the wheel outputs
+   */
+  public void arcade(double xSpeed, double zRotation, boolean squareInputs, WheelOutput out) {
+    xSpeed    = applyDeadband(clamp(xSpeed), deadband);
+    zRotation = applyDeadband(clamp(zRotation), deadband);
+    if (squareInputs) {
+      xSpeed    = Math.copySign(xSpeed * xSpeed, xSpeed);
+      zRotation = Math.copySign(zRotation * zRotation, zRotation);
+    }
+
+    double maxInput = Math.copySign(Math.max(Math.abs(xSpeed), Math.abs(zRotation)), xSpeed);
+    double left;
+    double right;
+    // first and third quadrants, else second and fourth
+    if ((xSpeed >= 0.0) == (zRotation >= 0.0)) {
+      left  = maxInput;
+      right = xSpeed - zRotation;
+    } else {
+      left  = xSpeed + zRotation;
+      right = maxInput;
+    }
+
+    out.left  = clamp(left) * maxOutput;
+    out.right = clamp(right) * (maxOutput * rightSideInvertMultiplier);
+  }
+
+  /**
+   * Curvature drive, see {@link DifferentialDrive#curvatureDrive(double, double, boolean)}.
+   *
+   * @param xSpeed      The robot's speed along the X axis [-1.0..1.0]. Forward is positive.
+   * @param zRotation   The robot's rotation rate around the Z axis [-1.0..1.0]. Clockwise is positive.
+   * @param isQuickTurn If set, overrides constant-curvature turning for turn-in-place maneuvers.
+   * @param out         receives the wheel outputs
+   */
+  public void curvature(double xSpeed, double zRotation, boolean isQuickTurn, WheelOutput out) {
+    xSpeed    = applyDeadband(clamp(xSpeed), deadband);
+    zRotation = applyDeadband(clamp(zRotation), deadband);
+
+    double left;
+    double right;
+    if (isQuickTurn) {
+      if (Math.abs(xSpeed) < quickStopThreshold) {
+        // zRotation is already clamped
+        quickStopAccumulator = (1 - quickStopAlpha) * quickStopAccumulator + quickStopAlpha * zRotation * 2;
+      }
+      left  = xSpeed - zRotation;
+      right = xSpeed + zRotation;
+
+      // If rotation is overpowered, reduce both outputs to within acceptable range
+      if (left > 1.0) {
+        right -= left - 1.0;
+        left = 1.0;
+      } else if (right > 1.0) {
+        left -= right - 1.0;
+        right = 1.0;
+      } else if (left < -1.0) {
+        right -= left + 1.0;
+        left = -1.0;
+      } else if (right < -1.0) {
+        left -= right + 1.0;
+        right = -1.0;
+      }
+    } else {
+      double angularPower = Math.abs(xSpeed) * zRotation - quickStopAccumulator;
+      // decays by one each call, and snaps to zero inside (-1, 1)
+      quickStopAccumulator = Math.abs(quickStopAccumulator) > 1
+                           ? quickStopAccumulator - Math.copySign(1, quickStopAccumulator)
+                           : 0.0;
+      left  = xSpeed - angularPower;
+      right = xSpeed + angularPower;
+    }
+
+    // Normalize the wheel speeds
+    double maxMagnitude = Math.max(Math.abs(left), Math.abs(right));
+    if (maxMagnitude > 1.0) {
+      left  /= maxMagnitude;
+      right /= maxMagnitude;
+    }
+
+    out.left  = left * -maxOutput;
+    out.right = right * -maxOutput * rightSideInvertMultiplier;
+  }
+
+  /**
+   * Turns on top of what {@link #curvature} mixed, e.g. a heading correction. Same sign as its
+   * zRotation, but without the deadband or the scaling by speed, then normalized again.
+   *
+   * @param rotation rotation [-1.0..1.0], clockwise is positive
+   * @param out      outputs of {@link #curvature}, updated in place
+   */
+  public void addRotation(double rotation, WheelOutput out) {
+    double left  = out.left  + rotation * maxOutput;
+    double right = out.right - rotation * maxOutput * rightSideInvertMultiplier;
+    double maxMagnitude = Math.max(Math.abs(left), Math.abs(right));
+    if (maxMagnitude > maxOutput && maxMagnitude > 0) {
+      left  *= maxOutput / maxMagnitude;
+      right *= maxOutput / maxMagnitude;
+    }
+    out.left  = left;
+    out.right = right;
+  }
+
+  /**
+   * Tank drive.
+   *
+   * @param leftSpeed    The robot left side's speed along the X axis [-1.0..1.0]. Forward is positive.
+   * @param rightSpeed   The robot right side's speed along the X axis [-1.0..1.0]. Forward is positive.
+   * @param squareInputs If set, decreases the input sensitivity at low speeds.
+   * @param out          receives the wheel outputs
+   */
+  public void tank(double leftSpeed, double rightSpeed, boolean squareInputs, WheelOutput out) {
+    leftSpeed  = applyDeadband(clamp(leftSpeed), deadband);
+    rightSpeed = applyDeadband(clamp(rightSpeed), deadband);
+    if (squareInputs) {
+      leftSpeed  = Math.copySign(leftSpeed * leftSpeed, leftSpeed);
+      rightSpeed = Math.copySign(rightSpeed * rightSpeed, rightSpeed);
+    }
+
+    out.left  = leftSpeed * maxOutput;
+    out.right = rightSpeed * maxOutput * rightSideInvertMultiplier;
+  }
+
+  /**
+   * Same result as MathUtil.clamp(value, -1.0, 1.0).
+   */
+  private static double clamp(double value) {
+    return Math.max(-1.0, Math.min(value, 1.0));
+  }
+
+  /**
+   * Same result as RobotDriveBase.applyDeadband, value - (-deadband) is exactly value + deadband.
+   */
+  private static double applyDeadband(double value, double deadband) {
+    return Math.abs(value) > deadband ? (value - Math.copySign(deadband, value)) / (1.0 - deadband) : 0.0;
+  }
+
+  public void setDeadband(double deadband) {
+    this.deadband = deadband;
+  }
+
+  public void setMaxOutput(double maxOutput) {
+    this.maxOutput = maxOutput;
+  }
+
+  public double getMaxOutput() {
+    return maxOutput;
+  }
+
+  public void setRightSideInverted(boolean rightSideInverted) {
+    rightSideInvertMultiplier = rightSideInverted ? -1.0 : 1.0;
+  }
+
+  public boolean isRightSideInverted() {
+    return rightSideInvertMultiplier == -1.0;
+  }
+
+  public void setQuickStopThreshold(double threshold) {
+    quickStopThreshold = threshold;
+  }
+
+  public void setQuickStopAlpha(double alpha) {
+    quickStopAlpha = alpha;
+  }
+}
@@ -0,0 +1,221 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis;
+
+import edu.wpi.first.wpilibj.controller.PIDController;
+import edu.wpi.first.wpilibj.controller.SimpleMotorFeedforward;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.motor.MotorIO;
+import frc.robot.sensor.GyroIO;
+import frc.robot.subsystems.chassis.characterization.CharacterizationDrivetrain;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryDrivetrain;
+import frc.robot.subsystems.chassis.trajectory.TrajectorySystem;
+
+/**
+ * The drivetrain subsystem, the only one for the four drive motors. Each mode has its own helper,
+ * they all write into {@link DrivetrainBase#output} and {@link #commit()} hands one output per master
+ * to the {@link frc.robot.motor.ActuatorTable} at the end of the loop.
+ */
+public class Drivetrain extends SubsystemBase implements TrajectorySystem {
+  /**
+   * Who drives the motors.
+   */
+  public enum Mode {
+    /** teleop, output is a fraction of the compensated voltage */
+    OPEN_LOOP,
+    /** teleop, output is a fraction of the max velocity, closed loop on the Talons */
+    CLOSED_LOOP,
+    /** trajectories and drive to pose, wheel velocities */
+    PATH_FOLLOWING,
+    /** characterization notifier, writes the masters itself */
+    CHARACTERIZATION
+  }
+
+  private final ControlDrivetrain          teleop           = new ControlDrivetrain();
+  private final TrajectoryDrivetrain       path             = new TrajectoryDrivetrain();
+  private final CharacterizationDrivetrain characterization = new CharacterizationDrivetrain();
+  private Mode mode = Mode.OPEN_LOOP;
+
+  private long lastFrames;
+  private long commits;
+
+  /**
+   * A drivetrain on other devices, e.g. {@link frc.robot.motor.FakeMotorIO}s off the robot.
+   * Only before any drivetrain is created, the devices are shared by every helper.
+   *
+   * @see DrivetrainBase#useIO
+   */
+  public static Drivetrain withIO(MotorIO leftMaster, MotorIO leftFollower, MotorIO rightMaster,
+                                  MotorIO rightFollower, GyroIO gyro) {
+    DrivetrainBase.useIO(leftMaster, leftFollower, rightMaster, rightFollower, gyro);
+    return new Drivetrain();
+  }
+
+  /**
+   * Start odometry and heading hold. Call once after {@link frc.robot.motor.MotorBatch#join()}, the
+   * encoders are only zeroed by then.
+   */
+  public void start() {
+    path.start();
+    teleop.start();
+  }
+
+  /**
+   * Switch mode, commands set it when they start.
+   *
+   * @param mode new mode, null is ignored
+   */
+  public void setMode(Mode mode) {
+    if (mode == null || mode == this.mode) {
+      return;
+    }
+    this.mode = mode;
+    teleop.setClosedLoop(mode == Mode.CLOSED_LOOP);
+    SmartDashboard.putString("Drive mode", mode.toString());
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * @return teleop helper, curvature drive and heading hold
+   */
+  public ControlDrivetrain teleop() {
+    return teleop;
+  }
+
+  /**
+   * @return characterization helper
+   */
+  public CharacterizationDrivetrain characterization() {
+    return characterization;
+  }
+
+  /**
+   * Hand over the outputs of this loop, call once after the scheduler.
+   */
+  public void commit() {
+    if (mode == Mode.CHARACTERIZATION || DrivetrainBase.commitOutputs()) {
+      // something is driving the masters, whichever mode it is
+      teleop.feed();
+    }
+    commits++;
+  }
+
+  @Override
+  public void periodic() {
+    path.message();
+    teleop.message();
+    // frames per loop since the last time this ran
+    long frames = DrivetrainBase.getFramesSent();
+    SmartDashboard.putNumber("Drive frames per loop", commits == 0 ? 0 : (double) (frames - lastFrames) / commits);
+    lastFrames = frames;
+    commits = 0;
+  }
+
+  // TrajectorySystem, path following switches the mode on the first output
+
+  @Override
+  public DifferentialDriveKinematics getKinematics() {
+    return path.getKinematics();
+  }
+
+  @Override
+  public DifferentialDriveWheelSpeeds getSpeed() {
+    return path.getSpeed();
+  }
+
+  @Override
+  public SimpleMotorFeedforward getFeedforward() {
+    return path.getFeedforward();
+  }
+
+  @Override
+  public PIDController getLeftPidController() {
+    return path.getLeftPidController();
+  }
+
+  @Override
+  public PIDController getRightPidController() {
+    return path.getRightPidController();
+  }
+
+  @Override
+  public Pose2d getPose() {
+    return path.getPose();
+  }
+
+  /**
+   * @see TrajectoryDrivetrain#getPoseAt(double)
+   */
+  public Pose2d getPoseAt(double timestamp) {
+    return path.getPoseAt(timestamp);
+  }
+
+  @Override
+  public void setOdmetry(Pose2d pose2d) {
+    path.setOdmetry(pose2d);
+  }
+
+  @Override
+  public double getLeftVelocity() {
+    return path.getLeftVelocity();
+  }
+
+  @Override
+  public double getLeftPosition() {
+    return path.getLeftPosition();
+  }
+
+  @Override
+  public double getRigthtVelocity() {
+    return path.getRigthtVelocity();
+  }
+
+  @Override
+  public double getRigthtPosition() {
+    return path.getRigthtPosition();
+  }
+
+  @Override
+  public double getX() {
+    return path.getX();
+  }
+
+  @Override
+  public double getY() {
+    return path.getY();
+  }
+
+  @Override
+  public void setOutput(double left, double right) {
+    setMode(Mode.PATH_FOLLOWING);
+    path.setOutput(left, right);
+  }
+
+  @Override
+  public Rotation2d getHeading() {
+    return path.getHeading();
+  }
+
+  @Override
+  public void message() {
+    path.message();
+  }
+
+  @Override
+  public void resetEncoders() {
+    path.resetEncoders();
+  }
+}
@@ -8,17 +8,26 @@
 package frc.robot.subsystems.chassis;
 
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
-import com.ctre.phoenix.motorcontrol.can.TalonFX;
-import com.kauailabs.navx.frc.AHRS;
+import com.ctre.phoenix.motorcontrol.SupplyCurrentLimitConfiguration;
 
 import edu.wpi.first.wpilibj.SPI;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Constants;
-import frc.robot.motor.MotorFactory;
+import frc.robot.subsystems.chassis.characterization.DriveCharacteristics;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CtreMotorIO;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorIO;
+import frc.robot.motor.MotorHealth;
+import frc.robot.motor.MotorHealth.Action;
+import frc.robot.motor.MotorProfile;
+import frc.robot.motor.StatusFrameProfile;
+import frc.robot.sensor.GyroIO;
+import frc.robot.sensor.NavXGyroIO;
+import frc.robot.sensor.SensorFrame;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.InvertType;
-import com.ctre.phoenix.motorcontrol.can.VictorSPX;
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonFX;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
 
 import edu.wpi.first.wpilibj.Joystick;
 import edu.wpi.first.wpilibj.TimedRobot;
@@ -26,59 +35,262 @@ import edu.wpi.first.wpilibj.Victor;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 /**
- * Must be sure these objects will be instantiated only once
+ * Must be sure these objects will be instantiated only once.
+ * Owns the motors but isn't a subsystem, {@link Drivetrain} is. Outputs are collected during the loop
+ * and handed to {@link ActuatorTable} once per master by {@link #commitOutputs()}.
+ *
+ * <p>Nothing is created at class load: the first construction opens the Talons and the navX,
+ * unless {@link #useIO} gave it fakes before.
  */
-public class DrivetrainBase extends SubsystemBase {
-  protected static WPI_TalonFX leftMas  = new WPI_TalonFX(Constants.Motor.leftMaster);
-  protected static WPI_TalonFX leftFol  = new WPI_TalonFX(Constants.Motor.leftFollewer);
-  protected static WPI_TalonFX rightMas = new WPI_TalonFX(Constants.Motor.rightMaster);
-  protected static WPI_TalonFX rightFol = new WPI_TalonFX(Constants.Motor.rightFollower);
-  protected static AHRS ahrs = new AHRS(SPI.Port.kMXP);
+public class DrivetrainBase {
+  protected static MotorIO leftMas;
+  protected static MotorIO leftFol;
+  protected static MotorIO rightMas;
+  protected static MotorIO rightFol;
+  protected static GyroIO  gyro;
+  private   static ActuatorTable.Actuator leftOut;
+  private   static ActuatorTable.Actuator rightOut;
   // Joystick joy1 = new Joystick(0);
   private   static boolean isFirst = true; 
+  private   static int     selectedSlot = 0;
+  private   static double  supplyCurrentLimit = Double.NaN;
+  // outputs of this loop, the last call wins
+  private   static boolean   pending;
+  private   static ControlMode outputMode = ControlMode.PercentOutput;
+  private   static double    leftOutput;
+  private   static double    rightOutput;
+  private   static double    leftFeedforward;
+  private   static double    rightFeedforward;
   
   /**
    * Creates a new DrivetrainBase.
    */
   public DrivetrainBase() {
     if(isFirst){
+      if(leftMas == null){
+        useIO(CtreMotorIO.talonFX(Constants.Motor.leftMaster),
+              CtreMotorIO.talonFX(Constants.Motor.leftFollewer),
+              CtreMotorIO.talonFX(Constants.Motor.rightMaster),
+              CtreMotorIO.talonFX(Constants.Motor.rightFollower),
+              new NavXGyroIO(SPI.Port.kMXP, Constants.Motor.gyroUpdateRateHz));
+      }
       firstConfig();
       isFirst = false;
     }
   }
 
+  /**
+   * Devices for every drivetrain helper, only before the first one is created.
+   *
+   * @param leftMaster    left master
+   * @param leftFollower  follows leftMaster
+   * @param rightMaster   right master
+   * @param rightFollower follows rightMaster
+   * @param gyro          gyro
+   */
+  public static void useIO(MotorIO leftMaster, MotorIO leftFollower, MotorIO rightMaster, MotorIO rightFollower,
+                           GyroIO gyro){
+    if(!isFirst){
+      throw new IllegalStateException("Drivetrain already created");
+    }
+    leftMas  = leftMaster;
+    leftFol  = leftFollower;
+    rightMas = rightMaster;
+    rightFol = rightFollower;
+    DrivetrainBase.gyro = gyro;
+  }
+
+  /**
+   * Forget the devices, the next drivetrain opens or gets new ones, e.g. between tests.
+   * A drivetrain created before must not be used any more, its notifiers still run on the old devices.
+   */
+  public static void resetIO(){
+    isFirst  = true;
+    leftMas  = null;
+    leftFol  = null;
+    rightMas = null;
+    rightFol = null;
+    gyro     = null;
+    leftOut  = null;
+    rightOut = null;
+    selectedSlot       = 0;
+    supplyCurrentLimit = Double.NaN;
+    pending            = false;
+  }
+
   public void firstConfig(){
-    MotorFactory.setFollower(leftMas, leftFol);
-    MotorFactory.setInvert(leftMas, Constants.Motor.isLeftMotorInvert);
-    MotorFactory.setPosion(leftMas, 0, 0, 10);
-    MotorFactory.setSensor(leftMas, FeedbackDevice.IntegratedSensor);
-    MotorFactory.setSensorPhase(leftMas, Constants.Motor.isLeftPhaseInvert);
-    MotorFactory.configLikePrevious(leftFol,Constants.Motor.isLeftPhaseInvert, Constants.Motor.isLeftMotorInvert);
-    MotorFactory.setFollower(rightMas, rightFol);
-    MotorFactory.configLikePrevious(rightMas, Constants.Motor.isRightPhaseInvert, Constants.Motor.isRightMotorInvert);
-    MotorFactory.configLikePrevious(rightFol, Constants.Motor.isRightPhaseInvert, Constants.Motor.isRightMotorInvert);
-    MotorFactory.voltageCompSaturation(rightMas, 10);
-    MotorFactory.voltageCompSaturation(leftMas, 10);
-
-    MotorFactory.configPF(leftMas, 0.0506, 0.07, 0);
-    MotorFactory.configPF(rightMas, 0.0506, 0.07, 0);
+    MotorProfile left = MotorProfile.builder("left follower")
+        .sensor(FeedbackDevice.IntegratedSensor)
+        .inverted(Constants.Motor.isLeftMotorInvert)
+        .sensorPhase(Constants.Motor.isLeftPhaseInvert)
+        .build();
+    MotorProfile right = left.toBuilder()
+        .name("right follower")
+        .inverted(Constants.Motor.isRightMotorInvert)
+        .sensorPhase(Constants.Motor.isRightPhaseInvert)
+        .build();
+    // kF from the last characterization, if the robot has one
+    double kF = DriveCharacteristics.get().talon_kF;
+    // Odometry reads the masters faster than the default 20ms feedback frame
+    int feedbackMs = Constants.Motor.feedbackFramePeriodMs;
+    // Each motor is configured on its own task, the sensor reset comes after its sensor is selected
+    new MotorBatch("Drivetrain")
+        .add(leftMas,  master(left, "left master", kF))
+        .add(leftFol,  left)
+        .add(rightMas, master(right, "right master", kF))
+        .add(rightFol, right)
+        .statusFrames(leftMas,  StatusFrameProfile.MASTER_CLOSED_LOOP, feedbackMs)
+        .statusFrames(rightMas, StatusFrameProfile.MASTER_CLOSED_LOOP, feedbackMs)
+        .statusFrames(leftFol,  StatusFrameProfile.FOLLOWER)
+        .statusFrames(rightFol, StatusFrameProfile.FOLLOWER)
+        .then(leftMas,  DrivetrainBase::zero)
+        .then(rightMas, DrivetrainBase::zero)
+        .then(leftFol,  DrivetrainBase::zero)
+        .then(rightFol, DrivetrainBase::zero)
+        .follow(leftFol, leftMas)
+        .follow(rightFol, rightMas)
+        .apply();
     // leftMas.config_kP(0, 10);
     // rightMas.config_kP(0, 10);
     
-    
-    ahrs.reset();
+    gyro.reset();
+    leftOut  = ActuatorTable.register("left master",  leftMas);
+    rightOut = ActuatorTable.register("right master", rightMas);
+    SensorFrame.register(DrivetrainBase::sample);
+    // a stalled drivetrain is usually pushing, only report it. A follower's velocity is only sent every
+    // 255ms, its master on the same gearbox covers stall and sensor, the follower only its temperature
+    MotorHealth.register("left master",   leftMas,  leftOut,  true,  Action.REPORT, Action.DERATE, Action.REPORT);
+    MotorHealth.register("left follower", leftFol,  leftOut,  false, Action.NONE,   Action.DERATE, Action.NONE);
+    MotorHealth.register("right master",  rightMas, rightOut, true,  Action.REPORT, Action.DERATE, Action.REPORT);
+    MotorHealth.register("right follower", rightFol, rightOut, false, Action.NONE,  Action.DERATE, Action.NONE);
   }
 
-  public static void resetSensor(){
-    MotorFactory.setPosion(leftMas, 0, 0, 0);
-    MotorFactory.setPosion(rightMas, 0, 0, 0);
-    MotorFactory.setPosion(leftFol, 0, 0, 0);
-    MotorFactory.setPosion(rightFol, 0, 0, 0);
-    ahrs.reset();
+  private static void zero(BaseMotorController motor){
+    motor.setSelectedSensorPosition(0, 0, MotorBatch.kTimeoutMs);
+  }
+
+  /**
+   * Drive encoders, currents and gyro for this loop's {@link SensorFrame}.
+   */
+  private static int sample(SensorFrame frame){
+    frame.driveTimestamp     = Timer.getFPGATimestamp();
+    frame.leftPosition       = leftMas.getPosition();
+    frame.rightPosition      = rightMas.getPosition();
+    frame.leftVelocity       = leftMas.getVelocity();
+    frame.rightVelocity      = rightMas.getVelocity();
+    frame.driveSupplyCurrent = leftMas.getSupplyCurrent() + leftFol.getSupplyCurrent()
+                             + rightMas.getSupplyCurrent() + rightFol.getSupplyCurrent();
+    frame.gyroAngle          = gyro.getAngle();
+    frame.gyroYaw            = gyro.getYaw();
+    frame.gyroRate           = gyro.getRate();
+    return 11;
+  }
+
+  /**
+   * Masters also close the velocity loops, followers only follow their output.
+   */
+  private static MotorProfile master(MotorProfile follower, String name, double kF){
+    return follower.toBuilder()
+        .name(name)
+        .voltageCompSaturation(Constants.Motor.voltageCompSaturation)
+        .slot(Constants.Motor.trajectorySlot, Constants.Motor.velocity_kP, 0, 0, kF)
+        // Teleop velocity: the whole feedforward comes from the model as arbitrary feedforward
+        .slot(Constants.Motor.teleopVelocitySlot, Constants.Motor.velocity_kP, 0, 0, 0)
+        .build();
+  }
+
+  /**
+   * Select the closed loop slot of both masters, only sent when it changes.
+   * 
+   * @param slot 閉迴控制位置(0,1,2)
+   */
+  protected static void selectSlot(int slot){
+    if(slot != selectedSlot){
+      leftMas.selectSlot(slot);
+      rightMas.selectSlot(slot);
+      selectedSlot = slot;
+    }
   }
 
-  @Override
-  public void periodic() {
-    // This method will be called once per scheduler run
+  /**
+   * Set the outputs of both masters for this loop, handed over by {@link #commitOutputs()}.
+   * Followers already follow the masters.
+   *
+   * @param mode             control mode of both masters
+   * @param left             left demand
+   * @param right            right demand
+   * @param leftFeedforward  left arbitrary feedforward [-1.0..1.0]
+   * @param rightFeedforward right arbitrary feedforward [-1.0..1.0]
+   */
+  protected static void output(ControlMode mode, double left, double right,
+                               double leftFeedforward, double rightFeedforward){
+    outputMode = mode;
+    leftOutput  = left;
+    rightOutput = right;
+    DrivetrainBase.leftFeedforward  = leftFeedforward;
+    DrivetrainBase.rightFeedforward = rightFeedforward;
+    pending = true;
+  }
+
+  /**
+   * @see #output(ControlMode, double, double, double, double)
+   */
+  protected static void output(ControlMode mode, double left, double right){
+    output(mode, left, right, 0, 0);
+  }
+
+  /**
+   * Hand this loop's outputs to the {@link ActuatorTable}, one per master. Call once per loop after
+   * the scheduler, before {@link ActuatorTable#commit()}.
+   *
+   * @return true if anything was written this loop
+   */
+  public static boolean commitOutputs(){
+    if(!pending){
+      return false;
+    }
+    leftOut.set(outputMode, leftOutput, leftFeedforward);
+    rightOut.set(outputMode, rightOutput, rightFeedforward);
+    pending = false;
+    return true;
+  }
+
+  /**
+   * @return control frames actually sent to the masters since boot
+   */
+  public static long getFramesSent(){
+    return leftOut.getSent() + rightOut.getSent();
+  }
+
+  /**
+   * Supply current limit of all four Falcons, only sent when it changes.
+   *
+   * @param amps continuous limit, also the trigger threshold
+   */
+  public static void setSupplyCurrentLimit(double amps){
+    if(amps == supplyCurrentLimit){
+      return;
+    }
+    SupplyCurrentLimitConfiguration limit = new SupplyCurrentLimitConfiguration(true, amps, amps, 0.1);
+    // no timeout, this is called while driving
+    leftMas.setSupplyCurrentLimit(limit);
+    leftFol.setSupplyCurrentLimit(limit);
+    rightMas.setSupplyCurrentLimit(limit);
+    rightFol.setSupplyCurrentLimit(limit);
+    supplyCurrentLimit = amps;
+  }
+
+  public static void resetSensor(){
+    leftMas.setPosition(0);
+    rightMas.setPosition(0);
+    leftFol.setPosition(0);
+    rightFol.setPosition(0);
+    gyro.reset();
+    // the rest of this loop sees the reset too
+    SensorFrame frame = SensorFrame.get();
+    frame.leftPosition  = 0;
+    frame.rightPosition = 0;
+    frame.gyroAngle     = 0;
+    frame.gyroYaw       = 0;
   }
 }
@@ -0,0 +1,83 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis;
+
+import edu.wpi.first.wpilibj.Notifier;
+import frc.robot.Constants;
+import frc.robot.sensor.GyroIO;
+
+/**
+ * Keeps the heading while the driver isn't turning. A {@link Notifier} at the navX rate latches the
+ * heading once the robot stops turning and publishes a PD correction, the main loop only reads it.
+ */
+public class HeadingHold {
+  private final GyroIO gyro;
+  private final Notifier notifier = new Notifier(this::update);
+
+  // written by the main loop
+  private volatile boolean requested;
+  // written by the notifier
+  private volatile double correction;
+  private volatile boolean latched;
+  private volatile double target;
+
+  public HeadingHold(GyroIO gyro) {
+    this.gyro = gyro;
+  }
+
+  /**
+   * Start the notifier, once the gyro has been reset.
+   */
+  public void start() {
+    notifier.startPeriodic(Constants.HeadingHold.period);
+  }
+
+  /**
+   * @param hold true while the driver drives without turning
+   */
+  public void setHold(boolean hold) {
+    requested = hold;
+  }
+
+  /**
+   * @return rotation to add to the mix [-maxCorrection..maxCorrection], clockwise is positive,
+   *         0 until a heading is latched
+   */
+  public double getCorrection() {
+    return requested ? correction : 0;
+  }
+
+  public boolean isLatched() {
+    return latched;
+  }
+
+  public double getTarget() {
+    return target;
+  }
+
+  private void update() {
+    if (!requested) {
+      latched = false;
+      correction = 0;
+      return;
+    }
+    // getAngle is continuous and clockwise positive, like zRotation
+    double angle = gyro.getAngle();
+    double rate  = gyro.getRate();
+    if (!latched) {
+      // latching while still turning would pull the robot back to where the stick was released
+      if (Math.abs(rate) > Constants.HeadingHold.settleRate) {
+        return;
+      }
+      target  = angle;
+      latched = true;
+    }
+    double output = Constants.HeadingHold.kP * (target - angle) - Constants.HeadingHold.kD * rate;
+    correction = Math.max(-Constants.HeadingHold.maxCorrection, Math.min(output, Constants.HeadingHold.maxCorrection));
+  }
+}
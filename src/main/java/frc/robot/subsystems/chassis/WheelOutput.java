@@ -0,0 +1,17 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis;
+
+/**
+ * Left and right output of {@link DriveMixer}, [-1.0..1.0] times max output.
+ * Reused every loop instead of allocating a result.
+ */
+public class WheelOutput {
+  public double left;
+  public double right;
+}
@@ -0,0 +1,313 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.characterization;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants;
+import frc.robot.subsystems.chassis.Drivetrain;
+import frc.robot.subsystems.chassis.DrivetrainBase;
+
+/**
+ * Drives leftMas/rightMas with a voltage profile on a {@link Notifier} and samples voltage, position,
+ * velocity and heading into a preallocated buffer every {@link Constants.Characterization#period}.
+ *
+ * <p>Every sample is folded into two {@link StreamingLeastSquares} fits as it arrives:
+ * "V = kS * sign(v) + kV * v + kA * a" from quasistatic and dynamic tests,
+ * and "right - left = trackWidth * heading + c" from spinning in place. Fits accumulate over tests
+ * until {@link #resetFit()}, {@link #save()} writes the result for the next boot.
+ *
+ * <p>Characterization mode of {@link Drivetrain}. The notifier writes the masters itself,
+ * the drivetrain doesn't commit outputs in this mode.
+ */
+public class CharacterizationDrivetrain extends DrivetrainBase {
+  /**
+   * Voltage profile of one test.
+   */
+  public enum Test {
+    /** slow ramp, acceleration is about zero so it mostly finds kS and kV */
+    QUASISTATIC,
+    /** voltage step, finds kA */
+    DYNAMIC,
+    /** spin in place, finds the effective track width */
+    TRACK_WIDTH
+  }
+
+  /** time, left volts, right volts, left m, right m, left m/s, right m/s, heading rad */
+  public static final int FIELDS = 8;
+
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "CharacterizationLog");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  private final Notifier notifier = new Notifier(this::sample);
+  private final double[] samples  = new double[Constants.Characterization.capacity * FIELDS];
+  private final double[] row      = new double[3];
+  private final StreamingLeastSquares feedforwardFit = new StreamingLeastSquares(3);
+  private final StreamingLeastSquares trackWidthFit  = new StreamingLeastSquares(2);
+
+  // Written under the lock by the notifier, read by the scheduler
+  private volatile int count;
+  private volatile boolean done;
+  private boolean running;
+  private Test    test;
+  private double  direction;
+  private double  startTime;
+
+  /**
+   * Start a test, the previous one is stopped.
+   *
+   * @param test      voltage profile
+   * @param direction 1 forward (counterclockwise for {@link Test#TRACK_WIDTH}), -1 backward
+   */
+  public void start(Test test, double direction) {
+    stop();
+    synchronized (this) {
+      this.test      = test;
+      this.direction = Math.signum(direction);
+      count          = 0;
+      done           = false;
+      startTime      = Timer.getFPGATimestamp();
+      running        = true;
+    }
+    notifier.startPeriodic(Constants.Characterization.period);
+  }
+
+  /**
+   * Stop the motors and write the samples of the test to "characterization" in the operating directory.
+   */
+  public void stop() {
+    synchronized (this) {
+      if (!running) {
+        return;
+      }
+      // a sample already past the check can't set the outputs after this
+      running = false;
+    }
+    notifier.stop();
+    leftMas.set(ControlMode.PercentOutput, 0, 0);
+    rightMas.set(ControlMode.PercentOutput, 0, 0);
+    flush();
+  }
+
+  /**
+   * @return true once the test reached its time or distance limit, the motors are already stopped
+   */
+  public boolean isDone() {
+    return done;
+  }
+
+  /**
+   * @param test voltage profile
+   * @return seconds the test may run
+   */
+  public static double duration(Test test) {
+    switch (test) {
+      case QUASISTATIC: return Constants.Characterization.quasistaticSeconds;
+      case DYNAMIC:     return Constants.Characterization.dynamicSeconds;
+      default:          return Constants.Characterization.trackWidthSeconds;
+    }
+  }
+
+  /**
+   * Runs on the notifier thread, doesn't allocate.
+   */
+  private synchronized void sample() {
+    if (!running) {
+      return;
+    }
+    int index = count;
+    double time = Timer.getFPGATimestamp() - startTime;
+    if (done || index >= Constants.Characterization.capacity || time >= duration(test)) {
+      finish();
+      return;
+    }
+    double volts;
+    switch (test) {
+      case QUASISTATIC:
+        volts = Constants.Characterization.quasistaticRampVoltsPerSecond * time;
+        break;
+      case DYNAMIC:
+        volts = Constants.Characterization.dynamicStepVolts;
+        break;
+      default:
+        volts = Constants.Characterization.trackWidthVolts;
+        break;
+    }
+    volts = Math.min(volts, Constants.Motor.voltageCompSaturation) * direction;
+    double leftVolts = test == Test.TRACK_WIDTH ? -volts : volts;
+    leftMas.set(ControlMode.PercentOutput, leftVolts / Constants.Motor.voltageCompSaturation, 0);
+    rightMas.set(ControlMode.PercentOutput, volts / Constants.Motor.voltageCompSaturation, 0);
+
+    int offset = index * FIELDS;
+    samples[offset]     = time;
+    samples[offset + 1] = leftMas.getOutputVoltage();
+    samples[offset + 2] = rightMas.getOutputVoltage();
+    samples[offset + 3] = leftMas.getPosition()  * Constants.Motor.distancePerPulse;
+    samples[offset + 4] = rightMas.getPosition() * Constants.Motor.distancePerPulse;
+    samples[offset + 5] = leftMas.getVelocity()  * Constants.Motor.distancePerPulse * 10;
+    samples[offset + 6] = rightMas.getVelocity() * Constants.Motor.distancePerPulse * 10;
+    samples[offset + 7] = Math.toRadians(-gyro.getAngle());
+    count = index + 1;
+
+    // how far the robot itself went, spinning in place doesn't count
+    double travelled = ((samples[offset + 3] - samples[3]) + (samples[offset + 4] - samples[4])) / 2;
+    if (Math.abs(travelled) >= Constants.Characterization.maxDistance) {
+      finish();
+    }
+
+    if (test == Test.TRACK_WIDTH) {
+      row[0] = samples[offset + 7] - samples[7];
+      row[1] = 1;
+      trackWidthFit.add(row, (samples[offset + 4] - samples[offset + 3]) - (samples[4] - samples[3]));
+    } else {
+      addFeedforwardRows(index);
+    }
+  }
+
+  /**
+   * Neutral until {@link #stop()}, the command ends on {@link #isDone()}.
+   */
+  private void finish() {
+    leftMas.set(ControlMode.PercentOutput, 0, 0);
+    rightMas.set(ControlMode.PercentOutput, 0, 0);
+    done = true;
+  }
+
+  /**
+   * Acceleration is the velocity difference across a window, so the rows are for the sample in the middle.
+   */
+  private void addFeedforwardRows(int newest) {
+    int window = Constants.Characterization.accelerationWindow;
+    if (newest < window) {
+      return;
+    }
+    int oldest = (newest - window) * FIELDS;
+    int middle = (newest - window / 2) * FIELDS;
+    int last   = newest * FIELDS;
+    double dt  = samples[last] - samples[oldest];
+    if (dt <= 0) {
+      return;
+    }
+    for (int side = 0; side < 2; side++) {
+      double velocity = samples[middle + 5 + side];
+      if (Math.abs(velocity) < Constants.Characterization.minVelocity) {
+        continue;
+      }
+      row[0] = Math.signum(velocity);
+      row[1] = velocity;
+      row[2] = (samples[last + 5 + side] - samples[oldest + 5 + side]) / dt;
+      feedforwardFit.add(row, samples[middle + 1 + side]);
+    }
+  }
+
+  /**
+   * Forget every test.
+   */
+  public synchronized void resetFit() {
+    feedforwardFit.reset();
+    trackWidthFit.reset();
+  }
+
+  /**
+   * Current fit, values that can't be determined yet come from what the robot booted with.
+   *
+   * @return characteristics
+   */
+  public synchronized DriveCharacteristics getFit() {
+    DriveCharacteristics booted = DriveCharacteristics.get();
+    double[] feedforward = new double[3];
+    double[] trackWidth  = new double[2];
+    boolean hasFeedforward = feedforwardFit.solve(feedforward);
+    boolean hasTrackWidth  = trackWidthFit.solve(trackWidth);
+    return new DriveCharacteristics(
+      hasFeedforward ? feedforward[0] : booted.kS,
+      hasFeedforward ? feedforward[1] : booted.kV,
+      hasFeedforward ? feedforward[2] : booted.kA,
+      hasTrackWidth  ? trackWidth[0]  : booted.trackWidth,
+      hasFeedforward ? DriveCharacteristics.talon_kF(feedforward[1]) : booted.talon_kF,
+      "fit");
+  }
+
+  /**
+   * Write the current fit to the deploy directory, the drivetrain uses it after the next boot.
+   */
+  public void save() {
+    DriveCharacteristics fit = getFit();
+    try {
+      fit.save(DriveCharacteristics.file());
+      System.out.printf("Saved drive characteristics: kS %.4f kV %.4f kA %.4f track width %.4f kF %.4f%n",
+                        fit.kS, fit.kV, fit.kA, fit.trackWidth, fit.talon_kF);
+    } catch (IOException ex) {
+      DriverStation.reportError("Unable to save drive characteristics", ex.getStackTrace());
+    }
+  }
+
+  /**
+   * Show the current fit
+   */
+  public void message() {
+    DriveCharacteristics fit = getFit();
+    SmartDashboard.putNumber("Char kS", fit.kS);
+    SmartDashboard.putNumber("Char kV", fit.kV);
+    SmartDashboard.putNumber("Char kA", fit.kA);
+    SmartDashboard.putNumber("Char trackWidth", fit.trackWidth);
+    SmartDashboard.putNumber("Char kF", fit.talon_kF);
+    synchronized (this) {
+      SmartDashboard.putNumber("Char r2", feedforwardFit.rSquared());
+      SmartDashboard.putNumber("Char rows", feedforwardFit.count());
+    }
+    SmartDashboard.putString("Char booted with", DriveCharacteristics.get().source);
+  }
+
+  private void flush() {
+    int cycles = count;
+    if (cycles == 0) {
+      return;
+    }
+    double[] copy = Arrays.copyOf(samples, cycles * FIELDS);
+    String fileName = String.format("%s_%+d_%d.csv", test, (int) direction, System.currentTimeMillis());
+    Path directory = Filesystem.getOperatingDirectory().toPath().resolve("characterization");
+    writer.execute(() -> {
+      try {
+        Files.createDirectories(directory);
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(fileName))) {
+          out.write("time,leftVolts,rightVolts,leftPosition,rightPosition,leftVelocity,rightVelocity,heading");
+          out.newLine();
+          for (int i = 0; i < cycles; i++) {
+            for (int f = 0; f < FIELDS; f++) {
+              if (f > 0) {
+                out.write(',');
+              }
+              out.write(Double.toString(copy[i * FIELDS + f]));
+            }
+            out.newLine();
+          }
+        }
+      } catch (IOException ex) {
+        DriverStation.reportError("Unable to write characterization log: " + fileName, ex.getStackTrace());
+      }
+    });
+  }
+}
@@ -0,0 +1,147 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.characterization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants;
+
+/**
+ * Drivetrain feedforward, Talon kF and effective track width.
+ * Read from {@link Constants.Characterization#fileName} in the deploy directory when the robot boots,
+ * falls back to {@link Constants.Motor} when the robot was never characterized.
+ */
+public final class DriveCharacteristics {
+  public final double kS;
+  public final double kV;
+  public final double kA;
+  public final double trackWidth;
+  public final double talon_kF;
+  /** where the values came from, shown on the dashboard */
+  public final String source;
+
+  private static DriveCharacteristics current;
+
+  /**
+   * Creates a new DriveCharacteristics.
+   *
+   * @param kS         volts
+   * @param kV         volts / (m/s)
+   * @param kA         volts / (m/s^2)
+   * @param trackWidth effective track width, meters
+   * @param talon_kF   Talon velocity slot kF
+   * @param source     where the values came from
+   */
+  public DriveCharacteristics(double kS, double kV, double kA, double trackWidth, double talon_kF, String source) {
+    this.kS         = kS;
+    this.kV         = kV;
+    this.kA         = kA;
+    this.trackWidth = trackWidth;
+    this.talon_kF   = talon_kF;
+    this.source     = source;
+  }
+
+  /**
+   * @return the values in {@link Constants.Motor}
+   */
+  public static DriveCharacteristics defaults() {
+    return new DriveCharacteristics(Constants.Motor.kS, Constants.Motor.kV, Constants.Motor.kA,
+                                    Constants.Motor.wheelPitch, Constants.Motor.velocity_kF, "Constants");
+  }
+
+  /**
+   * Talon kF that outputs kV * v at target v.
+   * Output is kF * target / 1023 of {@link Constants.Motor#voltageCompSaturation} volts and target is
+   * v / distancePerPulse per 100ms.
+   *
+   * @param kV volts / (m/s)
+   * @return kF
+   */
+  public static double talon_kF(double kV) {
+    return kV * Constants.Motor.distancePerPulse * 10 * 1023 / Constants.Motor.voltageCompSaturation;
+  }
+
+  /**
+   * Values used by the drivetrain, loaded on first use.
+   *
+   * @return characteristics
+   */
+  public static synchronized DriveCharacteristics get() {
+    if (current == null) {
+      current = load(file());
+    }
+    return current;
+  }
+
+  /**
+   * @return the file in the deploy directory
+   */
+  public static Path file() {
+    return Filesystem.getDeployDirectory().toPath().resolve(Constants.Characterization.fileName);
+  }
+
+  /**
+   * Read a file, {@link #defaults()} if it doesn't exist or can't be read.
+   *
+   * @param file properties file
+   * @return characteristics
+   */
+  public static DriveCharacteristics load(Path file) {
+    if (!Files.exists(file)) {
+      return defaults();
+    }
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(file)) {
+      properties.load(in);
+      DriveCharacteristics loaded = new DriveCharacteristics(
+        Double.parseDouble(properties.getProperty("kS")),
+        Double.parseDouble(properties.getProperty("kV")),
+        Double.parseDouble(properties.getProperty("kA")),
+        Double.parseDouble(properties.getProperty("trackWidth")),
+        Double.parseDouble(properties.getProperty("talon_kF")),
+        file.getFileName() + " " + properties.getProperty("date", ""));
+      System.out.printf("Drive characteristics from %s: kS %.4f kV %.4f kA %.4f track width %.4f kF %.4f%n",
+                        loaded.source, loaded.kS, loaded.kV, loaded.kA, loaded.trackWidth, loaded.talon_kF);
+      return loaded;
+    } catch (IOException | RuntimeException ex) {
+      DriverStation.reportError("Unable to read " + file + ", using Constants", ex.getStackTrace());
+      return defaults();
+    }
+  }
+
+  /**
+   * Write to a file, used at the next boot.
+   *
+   * @param file properties file
+   * @throws IOException if it can't be written
+   */
+  public void save(Path file) throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("kS", Double.toString(kS));
+    properties.setProperty("kV", Double.toString(kV));
+    properties.setProperty("kA", Double.toString(kA));
+    properties.setProperty("trackWidth", Double.toString(trackWidth));
+    properties.setProperty("talon_kF", Double.toString(talon_kF));
+    properties.setProperty("date", LocalDateTime.now().toString());
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (OutputStream out = Files.newOutputStream(temporary)) {
+      properties.store(out, "Drivetrain characterization, loaded at boot");
+    }
+    // a half-written file would be worse than the old one
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+}
@@ -0,0 +1,137 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.characterization;
+
+import java.util.Arrays;
+
+/**
+ * Least squares fit of "y = x . beta" one row at a time, without keeping the rows.
+ *
+ * <p>Keeps the triangular factor R of the QR decomposition and Q^T y, and folds every new row in with
+ * Givens rotations. That's O(n^2) per row, doesn't allocate, and is better conditioned than summing the
+ * normal equations when the regressors have very different scales (e.g. velocity and acceleration).
+ * Not thread safe.
+ */
+public class StreamingLeastSquares {
+  private final int size;
+  private final double[] r;
+  private final double[] qty;
+  private final double[] work;
+
+  private int    count;
+  private double residual;
+  private double sumY;
+  private double sumYSquared;
+
+  /**
+   * Creates a new StreamingLeastSquares.
+   *
+   * @param size number of coefficients
+   */
+  public StreamingLeastSquares(int size) {
+    this.size = size;
+    r    = new double[size * size];
+    qty  = new double[size];
+    work = new double[size];
+  }
+
+  /**
+   * Forget every row.
+   */
+  public void reset() {
+    Arrays.fill(r, 0);
+    Arrays.fill(qty, 0);
+    count       = 0;
+    residual    = 0;
+    sumY        = 0;
+    sumYSquared = 0;
+  }
+
+  /**
+   * Add one row.
+   *
+   * @param x regressors, at least {@link #size()} long, not modified
+   * @param y measurement
+   */
+  public void add(double[] x, double y) {
+    System.arraycopy(x, 0, work, 0, size);
+    sumY        += y;
+    sumYSquared += y * y;
+    count++;
+
+    for (int k = 0; k < size; k++) {
+      double xk = work[k];
+      if (xk == 0) {
+        continue;
+      }
+      int diagonal = k * size + k;
+      double radius = Math.hypot(r[diagonal], xk);
+      double c = r[diagonal] / radius;
+      double s = xk / radius;
+      r[diagonal] = radius;
+      for (int j = k + 1; j < size; j++) {
+        int index = k * size + j;
+        double rkj = r[index];
+        r[index] = c * rkj + s * work[j];
+        work[j]  = c * work[j] - s * rkj;
+      }
+      double qk = qty[k];
+      qty[k] = c * qk + s * y;
+      y      = c * y - s * qk;
+    }
+    // whatever is left of y can't be explained by any coefficient
+    residual += y * y;
+  }
+
+  /**
+   * Solve for the coefficients.
+   *
+   * @param beta receives the coefficients, at least {@link #size()} long
+   * @return false if there isn't enough data to determine every coefficient
+   */
+  public boolean solve(double[] beta) {
+    for (int i = size - 1; i >= 0; i--) {
+      double diagonal = r[i * size + i];
+      if (Math.abs(diagonal) < 1e-12) {
+        return false;
+      }
+      double sum = qty[i];
+      for (int j = i + 1; j < size; j++) {
+        sum -= r[i * size + j] * beta[j];
+      }
+      beta[i] = sum / diagonal;
+    }
+    return true;
+  }
+
+  /**
+   * @return coefficient of determination of the current fit, NaN before there are two rows
+   */
+  public double rSquared() {
+    if (count < 2) {
+      return Double.NaN;
+    }
+    double total = sumYSquared - sumY * sumY / count;
+    return total > 0 ? 1 - residual / total : Double.NaN;
+  }
+
+  /**
+   * @return root mean square of the residuals
+   */
+  public double rmse() {
+    return count > 0 ? Math.sqrt(residual / count) : Double.NaN;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int count() {
+    return count;
+  }
+}
@@ -0,0 +1,262 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.sim;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
+import frc.robot.Constants;
+import frc.robot.commands.auto.TrajectoryCommand;
+import frc.robot.subsystems.chassis.trajectory.TrackingAnalyzer;
+import frc.robot.subsystems.chassis.trajectory.TrackingRecorder;
+import frc.robot.subsystems.chassis.trajectory.TrajectorySampler;
+
+/**
+ * Sweep Ramsete b/zeta (and the Talon velocity kP) over every deploy trajectory on {@link SimDrivetrain},
+ * one candidate per fork-join task, and write a ranked report.
+ *
+ * <p>"gradlew tuneRamsete -PtuneArgs='b=10:30:21 zeta=0.5:1.0:11 kP=0.03,0.0506,0.08 threads=8'"
+ *
+ * <p>Score per path: rms cross-track + rms along-track (m) + {@link #HEADING_WEIGHT} * rms heading (rad)
+ * + {@link #LATENESS_WEIGHT} * seconds after the path's end until the robot is within
+ * {@link #FINISH_TOLERANCE} of the end. Lower is better, summed over paths.
+ */
+public final class RamseteTuner {
+  public static final double HEADING_WEIGHT   = 0.5;
+  public static final double LATENESS_WEIGHT  = 0.2;
+  public static final double FINISH_TOLERANCE = 0.05;
+  public static final double SETTLE_LIMIT     = 1.5;
+
+  private RamseteTuner() {
+  }
+
+  /**
+   * One set of gains and its score.
+   */
+  public static class Candidate {
+    public final double b;
+    public final double zeta;
+    public final double kP;
+    public double score;
+    public double worstRmsCrossTrack;
+    public double worstRmsHeading;
+    public double lateness;
+
+    public Candidate(double b, double zeta, double kP) {
+      this.b    = b;
+      this.zeta = zeta;
+      this.kP   = kP;
+    }
+  }
+
+  /**
+   * Trajectory shared read-only by every task.
+   */
+  private static class Route {
+    final String name;
+    final TrajectorySampler table;
+    final Pose2d start;
+    final Pose2d end;
+
+    Route(String name, Trajectory trajectory) {
+      this.name  = name;
+      this.table = new TrajectorySampler(trajectory);
+      this.start = trajectory.getInitialPose();
+      this.end   = trajectory.sample(trajectory.getTotalTimeSeconds()).poseMeters;
+    }
+  }
+
+  /**
+   * Evaluates candidates [from, to), splitting until one candidate per task.
+   */
+  private static class Sweep extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Candidate[] candidates;
+    private final List<Route> paths;
+    private final int from;
+    private final int to;
+
+    Sweep(Candidate[] candidates, List<Route> paths, int from, int to) {
+      this.candidates = candidates;
+      this.paths      = paths;
+      this.from       = from;
+      this.to         = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        evaluate(candidates[from], paths);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new Sweep(candidates, paths, from, middle), new Sweep(candidates, paths, middle, to));
+    }
+  }
+
+  /**
+   * @param args b=min:max:steps zeta=min:max:steps kP=a,b,c threads=n deploy=dir out=file
+   */
+  public static void main(String... args) throws IOException {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (equals > 0) {
+        options.put(arg.substring(0, equals), arg.substring(equals + 1));
+      }
+    }
+    double[] bs    = range(options.getOrDefault("b", "10:30:21"));
+    double[] zetas = range(options.getOrDefault("zeta", "0.5:1.0:11"));
+    double[] kPs   = list(options.getOrDefault("kP", Double.toString(Constants.Motor.velocity_kP)));
+    int threads    = Integer.parseInt(options.getOrDefault("threads",
+                                      Integer.toString(Runtime.getRuntime().availableProcessors())));
+    Path deployDirectory = Paths.get(options.getOrDefault("deploy", "src/main/deploy"));
+    Path report = Paths.get(options.getOrDefault("out", "build/ramsete-tuning.csv"));
+
+    List<Route> paths = new ArrayList<>();
+    for (String mapPath : Constants.Trajectory.all) {
+      String name = mapPath.substring(mapPath.lastIndexOf('/') + 1, mapPath.indexOf(".wpilib"));
+      paths.add(new Route(name, TrajectoryUtil.fromPathweaverJson(deployDirectory.resolve(mapPath))));
+    }
+
+    List<Candidate> list = new ArrayList<>();
+    for (double kP : kPs) {
+      for (double b : bs) {
+        for (double zeta : zetas) {
+          list.add(new Candidate(b, zeta, kP));
+        }
+      }
+      // the gains used on the robot now, so the report shows where they rank
+      list.add(new Candidate(TrajectoryCommand.kDefaultB, TrajectoryCommand.kDefaultZeta, kP));
+      list.add(new Candidate(20.0, 0.9, kP));
+    }
+    Candidate[] candidates = list.toArray(new Candidate[0]);
+
+    TrackingRecorder.setEnabled(false);
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    long start = System.nanoTime();
+    pool.invoke(new Sweep(candidates, paths, 0, candidates.length));
+    double seconds = (System.nanoTime() - start) / 1e9;
+    pool.shutdown();
+
+    Arrays.sort(candidates, Comparator.comparingDouble(c -> c.score));
+    write(report, candidates);
+
+    int runs = candidates.length * paths.size();
+    System.out.printf("%d candidates x %d paths on %d threads: %.1f s, %.0f runs/s (%.1f runs/s/thread)%n",
+                      candidates.length, paths.size(), threads, seconds, runs / seconds, runs / seconds / threads);
+    System.out.printf("%4s %7s %6s %8s %8s %10s %10s %9s%n",
+                      "rank", "b", "zeta", "kP", "score", "maxRmsXT", "maxRmsH", "late(s)");
+    for (int i = 0; i < candidates.length; i++) {
+      Candidate c = candidates[i];
+      boolean current = c.kP == Constants.Motor.velocity_kP
+                     && ((c.b == TrajectoryCommand.kDefaultB && c.zeta == TrajectoryCommand.kDefaultZeta)
+                      || (c.b == 20.0 && c.zeta == 0.9));
+      if (i < 10 || current) {
+        System.out.printf("%4d %7.2f %6.2f %8.4f %8.4f %10.4f %10.2f %9.2f%s%n", i + 1, c.b, c.zeta, c.kP,
+                          c.score, c.worstRmsCrossTrack, Math.toDegrees(c.worstRmsHeading), c.lateness,
+                          current ? "  <- current" : "");
+      }
+    }
+    System.out.println("Report: " + report.toAbsolutePath());
+  }
+
+  /**
+   * Run one candidate over every path, each path on its own simulated drivetrain.
+   */
+  private static void evaluate(Candidate candidate, List<Route> paths) {
+    for (Route path : paths) {
+      SimDrivetrain drivetrain = new SimDrivetrain(Constants.Motor.kS, Constants.Motor.kV, Constants.Motor.kA,
+                                                   candidate.kP, Constants.Motor.velocity_kF);
+      drivetrain.setOdmetry(path.start);
+      TrajectoryCommand command = new TrajectoryCommand(new TrajectorySampler(path.table), path.name,
+                                                        drivetrain, candidate.b, candidate.zeta);
+      double total = path.table.getTotalTimeSeconds();
+      // never got there, counts as twice the settle limit
+      double lateness = 2 * SETTLE_LIMIT;
+
+      // keep following the final state after the end until the robot gets there
+      command.initialize();
+      while (drivetrain.getSimulatedTime() < total + SETTLE_LIMIT) {
+        command.execute();
+        drivetrain.step(SimDrivetrain.kLoopPeriod);
+        double time = drivetrain.getSimulatedTime();
+        if (time >= total && distance(drivetrain.getPose(), path.end) < FINISH_TOLERANCE) {
+          lateness = time - total;
+          break;
+        }
+      }
+      command.end(false);
+
+      TrackingAnalyzer.Result result = command.getRecorder().analyze();
+      candidate.score += result.rmsCrossTrack + result.rmsAlongTrack
+                       + HEADING_WEIGHT * result.rmsHeading + LATENESS_WEIGHT * lateness;
+      candidate.worstRmsCrossTrack = Math.max(candidate.worstRmsCrossTrack, result.rmsCrossTrack);
+      candidate.worstRmsHeading    = Math.max(candidate.worstRmsHeading, result.rmsHeading);
+      candidate.lateness          += lateness;
+    }
+  }
+
+  private static void write(Path report, Candidate[] candidates) throws IOException {
+    if (report.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(report.toAbsolutePath().getParent());
+    }
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+      writer.println("rank,b,zeta,kP,score,worstRmsCrossTrack_m,worstRmsHeading_deg,lateness_s");
+      for (int i = 0; i < candidates.length; i++) {
+        Candidate c = candidates[i];
+        writer.printf("%d,%.4f,%.4f,%.5f,%.6f,%.6f,%.4f,%.3f%n", i + 1, c.b, c.zeta, c.kP, c.score,
+                      c.worstRmsCrossTrack, Math.toDegrees(c.worstRmsHeading), c.lateness);
+      }
+    }
+  }
+
+  private static double distance(Pose2d a, Pose2d b) {
+    return a.getTranslation().getDistance(b.getTranslation());
+  }
+
+  /**
+   * "min:max:steps" to evenly spaced values
+   */
+  private static double[] range(String spec) {
+    String[] parts = spec.split(":");
+    if (parts.length == 1) {
+      return new double[] {Double.parseDouble(parts[0])};
+    }
+    double min = Double.parseDouble(parts[0]);
+    double max = Double.parseDouble(parts[1]);
+    int steps  = Integer.parseInt(parts[2]);
+    double[] values = new double[steps];
+    for (int i = 0; i < steps; i++) {
+      values[i] = steps == 1 ? min : min + (max - min) * i / (steps - 1);
+    }
+    return values;
+  }
+
+  /**
+   * "a,b,c" to values
+   */
+  private static double[] list(String spec) {
+    return Arrays.stream(spec.split(",")).mapToDouble(Double::parseDouble).toArray();
+  }
+}
@@ -0,0 +1,270 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.sim;
+
+import edu.wpi.first.wpilibj.controller.PIDController;
+import edu.wpi.first.wpilibj.controller.SimpleMotorFeedforward;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import frc.robot.subsystems.chassis.trajectory.TrajectorySystem;
+
+/**
+ * Headless differential drive physics for {@link TrajectorySystem}, runs on virtual time.
+ *
+ * <p>Each side is "V = kS * sign(v) + kV * v + kA * a" with our characterized gains, driven by a model
+ * of the Talon velocity loop (slot 0 kP/kF, 10V voltage compensation, 1kHz) like the real
+ * {@link frc.robot.subsystems.chassis.trajectory.TrajectoryDrivetrain#setOutput(double, double)}.
+ * Nothing here touches HAL, so it runs on a plain JVM, and {@link #run(Command, double)}
+ * finishes a whole auto in milliseconds.
+ */
+public class SimDrivetrain implements TrajectorySystem {
+  public static final double kLoopPeriod   = 0.02;
+  public static final double kTalonPeriod  = 0.001;
+
+  // native velocity unit (pulses / 100ms) per m/s
+  private static final double NATIVE_PER_MPS = 1 / Constants.Motor.distancePerPulse / 10;
+
+  private final DifferentialDriveKinematics kinematics = new DifferentialDriveKinematics(Constants.Motor.wheelPitch);
+  private final SimpleMotorFeedforward feedForward;
+  private final double kS;
+  private final double kV;
+  private final double kA;
+  private final double talon_kP;
+  private final double talon_kF;
+  private final double trackWidth;
+
+  private PIDController lpidcontroller;
+  private PIDController rpidcontroller;
+
+  private double time;
+  private double x;
+  private double y;
+  private double heading;
+  private double leftVelocity;
+  private double rightVelocity;
+  private double leftPosition;
+  private double rightPosition;
+  private double leftTarget;
+  private double rightTarget;
+
+  /**
+   * Creates a new SimDrivetrain with the robot's constants.
+   */
+  public SimDrivetrain() {
+    this(Constants.Motor.kS, Constants.Motor.kV, Constants.Motor.kA,
+         Constants.Motor.velocity_kP, Constants.Motor.velocity_kF);
+  }
+
+  /**
+   * Creates a new SimDrivetrain.
+   *
+   * @param kS       volts
+   * @param kV       volts / (m/s)
+   * @param kA       volts / (m/s^2)
+   * @param talon_kP Talon slot 0 kP
+   * @param talon_kF Talon slot 0 kF
+   */
+  public SimDrivetrain(double kS, double kV, double kA, double talon_kP, double talon_kF) {
+    this.kS         = kS;
+    this.kV         = kV;
+    this.kA         = kA;
+    this.talon_kP   = talon_kP;
+    this.talon_kF   = talon_kF;
+    this.trackWidth = Constants.Motor.wheelPitch;
+    feedForward     = new SimpleMotorFeedforward(kS, kV, kA);
+  }
+
+  /**
+   * Run a command to the end, stepping physics between scheduler cycles.
+   * Doesn't go through the CommandScheduler and never sleeps.
+   *
+   * @param command        command, e.g. an auto
+   * @param timeoutSeconds simulated time limit
+   * @return simulated seconds the command took
+   */
+  public double run(Command command, double timeoutSeconds) {
+    double start = time;
+    command.initialize();
+    while (!command.isFinished()) {
+      if (time - start >= timeoutSeconds) {
+        command.end(true);
+        return time - start;
+      }
+      command.execute();
+      step(kLoopPeriod);
+    }
+    command.end(false);
+    return time - start;
+  }
+
+  /**
+   * Advance physics.
+   *
+   * @param seconds simulated time
+   */
+  public void step(double seconds) {
+    int steps = Math.max(1, (int) Math.round(seconds / kTalonPeriod));
+    double dt = seconds / steps;
+    double decay = Math.exp(-kV / kA * dt);
+    for (int i = 0; i < steps; i++) {
+      double leftVoltage  = talonVoltage(leftTarget, leftVelocity);
+      double rightVoltage = talonVoltage(rightTarget, rightVelocity);
+      double newLeft  = integrate(leftVelocity, leftVoltage, decay);
+      double newRight = integrate(rightVelocity, rightVoltage, decay);
+
+      double leftDistance  = (leftVelocity + newLeft) / 2 * dt;
+      double rightDistance = (rightVelocity + newRight) / 2 * dt;
+      double distance = (leftDistance + rightDistance) / 2;
+      double turn     = (rightDistance - leftDistance) / trackWidth;
+      double midHeading = heading + turn / 2;
+      x += distance * Math.cos(midHeading);
+      y += distance * Math.sin(midHeading);
+      heading += turn;
+
+      leftPosition  += leftDistance;
+      rightPosition += rightDistance;
+      leftVelocity  = newLeft;
+      rightVelocity = newRight;
+    }
+    time += seconds;
+  }
+
+  /**
+   * Talon velocity loop output, in volts.
+   */
+  private double talonVoltage(double targetNative, double velocity) {
+    double error  = targetNative - velocity * NATIVE_PER_MPS;
+    double output = (talon_kF * targetNative + talon_kP * error) / 1023;
+    output = Math.max(-1, Math.min(1, output));
+    return output * Constants.Motor.voltageCompSaturation;
+  }
+
+  /**
+   * Exact solution of kA * dv/dt = V - kS * sign(v) - kV * v over one step, so it's stable at any dt.
+   */
+  private double integrate(double velocity, double voltage, double decay) {
+    double direction = velocity != 0 ? Math.signum(velocity) : Math.signum(voltage);
+    if (velocity == 0 && Math.abs(voltage) <= kS) {
+      return 0;
+    }
+    double steady = (voltage - kS * direction) / kV;
+    double next = steady + (velocity - steady) * decay;
+    // friction stops the wheel rather than reversing it
+    if (Math.signum(next) == -direction && Math.abs(voltage) <= kS) {
+      return 0;
+    }
+    return next;
+  }
+
+  public double getSimulatedTime() {
+    return time;
+  }
+
+  @Override
+  public double getTimestamp() {
+    return time;
+  }
+
+  @Override
+  public DifferentialDriveKinematics getKinematics() {
+    return kinematics;
+  }
+
+  @Override
+  public DifferentialDriveWheelSpeeds getSpeed() {
+    return new DifferentialDriveWheelSpeeds(leftVelocity, rightVelocity);
+  }
+
+  @Override
+  public SimpleMotorFeedforward getFeedforward() {
+    return feedForward;
+  }
+
+  @Override
+  public PIDController getLeftPidController() {
+    if (lpidcontroller == null) {
+      lpidcontroller = new PIDController(talon_kP, 0, 0);
+    }
+    return lpidcontroller;
+  }
+
+  @Override
+  public PIDController getRightPidController() {
+    if (rpidcontroller == null) {
+      rpidcontroller = new PIDController(talon_kP, 0, 0);
+    }
+    return rpidcontroller;
+  }
+
+  @Override
+  public Pose2d getPose() {
+    return new Pose2d(x, y, new Rotation2d(heading));
+  }
+
+  @Override
+  public void setOdmetry(Pose2d pose2d) {
+    x       = pose2d.getTranslation().getX();
+    y       = pose2d.getTranslation().getY();
+    heading = pose2d.getRotation().getRadians();
+  }
+
+  @Override
+  public double getLeftVelocity() {
+    return leftVelocity * NATIVE_PER_MPS;
+  }
+
+  @Override
+  public double getLeftPosition() {
+    return leftPosition / Constants.Motor.distancePerPulse;
+  }
+
+  @Override
+  public double getRigthtVelocity() {
+    return rightVelocity * NATIVE_PER_MPS;
+  }
+
+  @Override
+  public double getRigthtPosition() {
+    return rightPosition / Constants.Motor.distancePerPulse;
+  }
+
+  @Override
+  public double getX() {
+    return x;
+  }
+
+  @Override
+  public double getY() {
+    return y;
+  }
+
+  @Override
+  public void setOutput(double left, double right) {
+    leftTarget  = left * NATIVE_PER_MPS;
+    rightTarget = right * NATIVE_PER_MPS;
+  }
+
+  @Override
+  public Rotation2d getHeading() {
+    return new Rotation2d(heading);
+  }
+
+  @Override
+  public void message() {
+  }
+
+  @Override
+  public void resetEncoders() {
+    leftPosition  = 0;
+    rightPosition = 0;
+  }
+}
@@ -0,0 +1,157 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.trajectory;
+
+import java.lang.invoke.VarHandle;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+
+/**
+ * Fixed-capacity ring buffer of timestamped poses, answers "where was the robot at time t".
+ *
+ * <p>One writer (the odometry thread) and any number of readers. {@link #add} doesn't allocate or lock,
+ * readers retry if the entries they used were overwritten while reading.
+ */
+public class PoseHistory {
+  private static final int MAX_RETRIES = 3;
+
+  private final int mask;
+  private final double[] timestamps;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] headings;
+  // Number of entries ever written, publishes the arrays to readers
+  private volatile long written;
+  // Entries before this one were dropped by clear()
+  private volatile long firstValid;
+
+  /**
+   * Creates a new PoseHistory.
+   *
+   * @param capacity entries kept, rounded up to a power of two
+   */
+  public PoseHistory(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    mask       = size - 1;
+    timestamps = new double[size];
+    xs         = new double[size];
+    ys         = new double[size];
+    headings   = new double[size];
+  }
+
+  /**
+   * Add a pose, timestamps must increase. Only call from one thread.
+   *
+   * @param timestamp FPGA timestamp, seconds
+   * @param x         meters
+   * @param y         meters
+   * @param heading   radians
+   */
+  public void add(double timestamp, double x, double y, double heading) {
+    long count = written;
+    int slot = (int) (count & mask);
+    timestamps[slot] = timestamp;
+    xs[slot]         = x;
+    ys[slot]         = y;
+    headings[slot]   = heading;
+    written = count + 1;
+  }
+
+  /**
+   * Drop every entry, e.g. after odometry is reset. Only call from the writer thread.
+   */
+  public void clear() {
+    firstValid = written;
+  }
+
+  /**
+   * Interpolated pose at a past timestamp, without allocating.
+   *
+   * @param timestamp FPGA timestamp, seconds
+   * @param out       receives x, y, heading(rad)
+   * @return false if the timestamp is outside the window
+   */
+  public boolean sample(double timestamp, double[] out) {
+    for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+      long newest = written - 1;
+      // Leave one slot of margin for the entry being written right now
+      long oldest = Math.max(firstValid, newest - mask + 1);
+      if (newest < oldest) {
+        return false;
+      }
+
+      if (timestamp > timestamps[(int) (newest & mask)] || !(timestamp >= timestamps[(int) (oldest & mask)])) {
+        if (isValid(oldest)) {
+          return false;
+        }
+        continue;
+      }
+
+      // last entry with time <= timestamp
+      long low = oldest;
+      long high = newest;
+      while (low < high) {
+        long mid = (low + high + 1) >>> 1;
+        if (timestamps[(int) (mid & mask)] <= timestamp) {
+          low = mid;
+        } else {
+          high = mid - 1;
+        }
+      }
+      int before = (int) (low & mask);
+      int after  = (int) (Math.min(low + 1, newest) & mask);
+
+      double span = timestamps[after] - timestamps[before];
+      double fraction = span > 0 ? (timestamp - timestamps[before]) / span : 0;
+      double x = xs[before] + (xs[after] - xs[before]) * fraction;
+      double y = ys[before] + (ys[after] - ys[before]) * fraction;
+      double heading = headings[before]
+                     + TrajectorySampler.wrap(headings[after] - headings[before]) * fraction;
+
+      if (isValid(low)) {
+        out[0] = x;
+        out[1] = y;
+        out[2] = heading;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Interpolated pose at a past timestamp.
+   *
+   * @param timestamp FPGA timestamp, seconds
+   * @return pose, null if the timestamp is outside the window
+   */
+  public Pose2d getPose(double timestamp) {
+    double[] out = new double[3];
+    if (!sample(timestamp, out)) {
+      return null;
+    }
+    return new Pose2d(out[0], out[1], new Rotation2d(out[2]));
+  }
+
+  /**
+   * @return number of entries currently kept
+   */
+  public int size() {
+    long count = written;
+    return (int) Math.max(0, Math.min(count - firstValid, mask));
+  }
+
+  /**
+   * @return true if the entry still hasn't been overwritten
+   */
+  private boolean isValid(long index) {
+    // keep the array reads above from moving past the re-read of the counter
+    VarHandle.acquireFence();
+    return written - 1 - index < mask;
+  }
+}
@@ -0,0 +1,145 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.trajectory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Offline report of {@link TrackingRecorder} files, runs on a laptop (plain Java, no WPILib).
+ * Copy "tracking" from the roboRIO, then "gradlew analyzeTracking -Plogs=path/to/tracking".
+ *
+ * <p>Per file: RMS and max of cross-track, along-track and heading error.
+ */
+public final class TrackingAnalyzer {
+  private TrackingAnalyzer() {
+  }
+
+  /**
+   * Tracking error of one run.
+   */
+  public static class Result {
+    public String name;
+    public double b;
+    public double zeta;
+    public int    cycles;
+    public double duration;
+    public double rmsCrossTrack;
+    public double maxCrossTrack;
+    public double rmsAlongTrack;
+    public double maxAlongTrack;
+    public double rmsHeading;
+    public double maxHeading;
+  }
+
+  /**
+   * @param args log files or directories of log files
+   */
+  public static void main(String... args) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (String arg : args.length == 0 ? new String[] {"tracking"} : args) {
+      Path path = Paths.get(arg);
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> stream = Files.list(path)) {
+          files.addAll(stream.filter(p -> p.toString().endsWith(TrackingRecorder.SUFFIX))
+                             .sorted()
+                             .collect(Collectors.toList()));
+        }
+      } else {
+        files.add(path);
+      }
+    }
+
+    System.out.printf("%-12s %6s %6s %6s %7s | %9s %9s | %9s %9s | %9s %9s%n",
+                      "path", "b", "zeta", "cycles", "time(s)",
+                      "rmsXT(m)", "maxXT(m)", "rmsAT(m)", "maxAT(m)", "rmsH(deg)", "maxH(deg)");
+    for (Path file : files) {
+      Result r = analyze(file);
+      System.out.printf("%-12s %6.2f %6.2f %6d %7.2f | %9.4f %9.4f | %9.4f %9.4f | %9.3f %9.3f%n",
+                        r.name, r.b, r.zeta, r.cycles, r.duration,
+                        r.rmsCrossTrack, r.maxCrossTrack, r.rmsAlongTrack, r.maxAlongTrack,
+                        Math.toDegrees(r.rmsHeading), Math.toDegrees(r.maxHeading));
+    }
+  }
+
+  /**
+   * Read one log file.
+   *
+   * @param file log file
+   * @return tracking error
+   * @throws IOException if it isn't a tracking log
+   */
+  public static Result analyze(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != TrackingRecorder.MAGIC || in.readInt() != TrackingRecorder.VERSION) {
+        throw new IOException("Not a tracking log: " + file);
+      }
+      String name = in.readUTF();
+      double b    = in.readDouble();
+      double zeta = in.readDouble();
+      int fields  = in.readInt();
+      int cycles  = in.readInt();
+      double[] samples = new double[fields * cycles];
+      for (int i = 0; i < samples.length; i++) {
+        samples[i] = in.readDouble();
+      }
+      Result result = analyze(samples, fields, cycles);
+      result.name = name;
+      result.b    = b;
+      result.zeta = zeta;
+      return result;
+    }
+  }
+
+  /**
+   * Tracking error of recorded cycles, see {@link TrackingRecorder#FIELDS} for the layout.
+   *
+   * @param samples recorded cycles
+   * @param fields  values per cycle
+   * @param cycles  number of cycles
+   * @return tracking error, without name and gains
+   */
+  public static Result analyze(double[] samples, int fields, int cycles) {
+    Result result = new Result();
+    double sumCrossTrack = 0;
+    double sumAlongTrack = 0;
+    double sumHeading    = 0;
+    for (int i = 0; i < cycles; i++) {
+      int row = i * fields;
+      double refHeading = samples[row + 3];
+      double dx = samples[row + 5] - samples[row + 1];
+      double dy = samples[row + 6] - samples[row + 2];
+      double alongTrack = dx * Math.cos(refHeading) + dy * Math.sin(refHeading);
+      double crossTrack = -dx * Math.sin(refHeading) + dy * Math.cos(refHeading);
+      double heading    = Math.abs(Math.IEEEremainder(samples[row + 7] - refHeading, 2 * Math.PI));
+
+      sumCrossTrack += crossTrack * crossTrack;
+      sumAlongTrack += alongTrack * alongTrack;
+      sumHeading    += heading * heading;
+      result.maxCrossTrack = Math.max(result.maxCrossTrack, Math.abs(crossTrack));
+      result.maxAlongTrack = Math.max(result.maxAlongTrack, Math.abs(alongTrack));
+      result.maxHeading    = Math.max(result.maxHeading, heading);
+      result.duration      = samples[row];
+    }
+    result.cycles = cycles;
+    if (cycles > 0) {
+      result.rmsCrossTrack = Math.sqrt(sumCrossTrack / cycles);
+      result.rmsAlongTrack = Math.sqrt(sumAlongTrack / cycles);
+      result.rmsHeading    = Math.sqrt(sumHeading / cycles);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,154 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.trajectory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Records reference, measured pose, wheel commands and wheel velocities every follower cycle
+ * into preallocated memory, and writes them to a file after the path is done.
+ * Read the files with {@link TrackingAnalyzer}.
+ */
+public class TrackingRecorder {
+  public static final int    MAGIC   = 0x4C4B5254; // "TRKL"
+  public static final int    VERSION = 1;
+  public static final String SUFFIX  = ".trk";
+
+  /** time, ref x, ref y, ref heading, ref velocity, x, y, heading, left cmd, right cmd, left vel, right vel */
+  public static final int FIELDS = 12;
+
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "TrackingRecorder");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  private static volatile boolean enabled = true;
+
+  private final String name;
+  private final double b;
+  private final double zeta;
+  private final double[] samples;
+  private int count;
+
+  /**
+   * Creates a new TrackingRecorder.
+   *
+   * @param name     path name, used in the file name
+   * @param b        Ramsete b of the run
+   * @param zeta     Ramsete zeta of the run
+   * @param capacity cycles kept, later cycles are dropped
+   */
+  public TrackingRecorder(String name, double b, double zeta, int capacity) {
+    this.name    = name;
+    this.b       = b;
+    this.zeta    = zeta;
+    this.samples = new double[capacity * FIELDS];
+  }
+
+  /**
+   * Turn writing files on or off, e.g. off for simulated runs.
+   *
+   * @param enable true to write files
+   */
+  public static void setEnabled(boolean enable) {
+    enabled = enable;
+  }
+
+  /**
+   * Forget the previous run.
+   */
+  public void reset() {
+    count = 0;
+  }
+
+  /**
+   * Record one cycle, doesn't allocate.
+   */
+  public void record(double time, double refX, double refY, double refHeading, double refVelocity,
+                     double x, double y, double heading,
+                     double leftCommand, double rightCommand, double leftVelocity, double rightVelocity) {
+    int index = count * FIELDS;
+    if (index >= samples.length) {
+      return;
+    }
+    samples[index]      = time;
+    samples[index + 1]  = refX;
+    samples[index + 2]  = refY;
+    samples[index + 3]  = refHeading;
+    samples[index + 4]  = refVelocity;
+    samples[index + 5]  = x;
+    samples[index + 6]  = y;
+    samples[index + 7]  = heading;
+    samples[index + 8]  = leftCommand;
+    samples[index + 9]  = rightCommand;
+    samples[index + 10] = leftVelocity;
+    samples[index + 11] = rightVelocity;
+    count++;
+  }
+
+  /**
+   * Tracking error of the recorded run, without writing it.
+   *
+   * @return tracking error
+   */
+  public TrackingAnalyzer.Result analyze() {
+    TrackingAnalyzer.Result result = TrackingAnalyzer.analyze(samples, FIELDS, count);
+    result.name = name;
+    result.b    = b;
+    result.zeta = zeta;
+    return result;
+  }
+
+  /**
+   * Write the recorded run on a background thread, to "tracking" in the operating directory.
+   */
+  public void flush() {
+    if (count == 0 || !enabled) {
+      return;
+    }
+    double[] copy = Arrays.copyOf(samples, count * FIELDS);
+    int cycles = count;
+    String fileName = String.format("%s_b%.2f_z%.2f_%d%s", name, b, zeta, System.currentTimeMillis(), SUFFIX);
+    Path directory = Filesystem.getOperatingDirectory().toPath().resolve("tracking");
+    writer.execute(() -> {
+      try {
+        Files.createDirectories(directory);
+        write(directory.resolve(fileName), copy, cycles);
+      } catch (IOException ex) {
+        DriverStation.reportError("Unable to write tracking log: " + fileName, ex.getStackTrace());
+      }
+    });
+  }
+
+  private void write(Path path, double[] data, int cycles) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeUTF(name);
+      out.writeDouble(b);
+      out.writeDouble(zeta);
+      out.writeInt(FIELDS);
+      out.writeInt(cycles);
+      for (int i = 0; i < cycles * FIELDS; i++) {
+        out.writeDouble(data[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.trajectory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
+
+/**
+ * Precompiled trajectory format, so the robot doesn't have to parse PathWeaver json at boot.
+ *
+ * <p>Layout (little endian): magic, version, state count, padding (4 ints),
+ * then 7 doubles per state: time, velocity, acceleration, x, y, heading(rad), curvature.
+ */
+public final class TrajectoryBinary {
+  public static final String JSON_SUFFIX   = ".wpilib.json";
+  public static final String BINARY_SUFFIX = ".wpilib.bin";
+
+  private static final int MAGIC            = 0x424A5254; // "TRJB"
+  private static final int VERSION          = 1;
+  private static final int HEADER_BYTES     = 16;
+  private static final int DOUBLES_PER_STATE = 7;
+  private static final int STATE_BYTES      = DOUBLES_PER_STATE * Double.BYTES;
+
+  private TrajectoryBinary() {
+  }
+
+  /**
+   * Returns the binary file that belongs to a PathWeaver output.
+   *
+   * @param jsonPath e.g. "output/TwoBall.wpilib.json"
+   * @return e.g. "output/TwoBall.wpilib.bin"
+   */
+  public static String binaryPathOf(String jsonPath) {
+    if (jsonPath.endsWith(JSON_SUFFIX)) {
+      return jsonPath.substring(0, jsonPath.length() - JSON_SUFFIX.length()) + BINARY_SUFFIX;
+    }
+    return jsonPath + BINARY_SUFFIX;
+  }
+
+  /**
+   * Memory-map a binary trajectory and build the {@link Trajectory}.
+   *
+   * @param path binary file
+   * @return trajectory
+   * @throws IOException if the file is missing, truncated or not a trajectory
+   */
+  public static Trajectory fromBinary(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES) {
+        throw new IOException("Trajectory file too short: " + path);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new IOException("Not a binary trajectory (or wrong version): " + path);
+      }
+      int count = buffer.getInt(8);
+      if (count < 0 || size != HEADER_BYTES + (long) count * STATE_BYTES) {
+        throw new IOException("Corrupted trajectory file: " + path);
+      }
+
+      double[] raw = new double[count * DOUBLES_PER_STATE];
+      buffer.position(HEADER_BYTES);
+      buffer.asDoubleBuffer().get(raw);
+
+      List<Trajectory.State> states = new ArrayList<>(count);
+      for (int i = 0; i < raw.length; i += DOUBLES_PER_STATE) {
+        states.add(new Trajectory.State(
+          raw[i],
+          raw[i + 1],
+          raw[i + 2],
+          new Pose2d(raw[i + 3], raw[i + 4], new Rotation2d(raw[i + 5])),
+          raw[i + 6]));
+      }
+      return new Trajectory(states);
+    }
+  }
+
+  /**
+   * Write a trajectory in the binary format.
+   *
+   * @param trajectory trajectory
+   * @param path       output file
+   * @throws IOException
+   */
+  public static void toBinary(Trajectory trajectory, Path path) throws IOException {
+    List<Trajectory.State> states = trajectory.getStates();
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + states.size() * STATE_BYTES)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION).putInt(states.size()).putInt(0);
+    for (Trajectory.State state : states) {
+      buffer.putDouble(state.timeSeconds)
+            .putDouble(state.velocityMetersPerSecond)
+            .putDouble(state.accelerationMetersPerSecondSq)
+            .putDouble(state.poseMeters.getTranslation().getX())
+            .putDouble(state.poseMeters.getTranslation().getY())
+            .putDouble(state.poseMeters.getRotation().getRadians())
+            .putDouble(state.curvatureRadPerMeter);
+    }
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    Files.write(path, buffer.array());
+  }
+
+  /**
+   * Build step, convert every PathWeaver output in a directory.
+   *
+   * @param args input directory, output directory
+   */
+  public static void main(String... args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: TrajectoryBinary <pathweaver output dir> <binary output dir>");
+      System.exit(1);
+    }
+    Path input  = Paths.get(args[0]);
+    Path output = Paths.get(args[1]);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(input, "*" + JSON_SUFFIX)) {
+      for (Path json : files) {
+        Path binary = output.resolve(binaryPathOf(json.getFileName().toString()));
+        Trajectory trajectory = TrajectoryUtil.fromPathweaverJson(json);
+        toBinary(trajectory, binary);
+        System.out.println(json.getFileName() + " -> " + binary.getFileName()
+                         + " (" + trajectory.getStates().size() + " states)");
+      }
+    }
+  }
+}
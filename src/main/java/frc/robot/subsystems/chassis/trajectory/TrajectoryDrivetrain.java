@@ -7,8 +7,12 @@
 
 package frc.robot.subsystems.chassis.trajectory;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import com.ctre.phoenix.motorcontrol.ControlMode;
 
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.controller.PIDController;
 import edu.wpi.first.wpilibj.controller.SimpleMotorFeedforward;
 import edu.wpi.first.wpilibj.geometry.Pose2d;
@@ -18,25 +22,84 @@ import edu.wpi.first.wpilibj.kinematics.DifferentialDriveOdometry;
 import edu.wpi.first.wpilibj.kinematics.DifferentialDriveWheelSpeeds;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants;
+import frc.robot.sensor.SensorFrame;
+import frc.robot.subsystems.chassis.Drivetrain;
 import frc.robot.subsystems.chassis.DrivetrainBase;
+import frc.robot.subsystems.chassis.characterization.DriveCharacteristics;
 
 
-public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySystem{
+/**
+ * Path following mode of {@link Drivetrain}, odometry runs all the time.
+ */
+public class TrajectoryDrivetrain extends DrivetrainBase {
 
-  private final DifferentialDriveOdometry odometry = new DifferentialDriveOdometry(getHeading());
-  private final DifferentialDriveKinematics kinematics = new DifferentialDriveKinematics(Constants.Motor.wheelPitch);
-  private Pose2d pose;
+  // Only touched by the odometry thread
+  private final DifferentialDriveOdometry odometry = new DifferentialDriveOdometry(readHeading());
+  private final DriveCharacteristics characteristics = DriveCharacteristics.get();
+  private final DifferentialDriveKinematics kinematics = new DifferentialDriveKinematics(characteristics.trackWidth);
+  private final Notifier odometryNotifier = new Notifier(this::updateOdometry);
+  // Pose2d is immutable, so publishing the reference is a lock-free snapshot without torn reads
+  private volatile Pose2d pose = new Pose2d();
+  private final AtomicReference<Pose2d> pendingReset = new AtomicReference<>();
+  private final PoseHistory poseHistory = new PoseHistory(Constants.Motor.poseHistorySize);
   //0.04, 2.23, -0.007
-  SimpleMotorFeedforward feedForward = new SimpleMotorFeedforward(0.04, 2.23, 0.007);
+  SimpleMotorFeedforward feedForward = new SimpleMotorFeedforward(characteristics.kS, characteristics.kV, characteristics.kA);
 
-  PIDController lpidcontroller = new PIDController(0.0506, 0, 0.0000);
-  PIDController rpidcontroller = new PIDController(0.0506, 0, 0.0000);
+  PIDController lpidcontroller = new PIDController(Constants.Motor.velocity_kP, 0, 0.0000);
+  PIDController rpidcontroller = new PIDController(Constants.Motor.velocity_kP, 0, 0.0000);
 
   /**
    * Creates a new Drivetrain.
    */
   public TrajectoryDrivetrain() {
+  }
+
+  /**
+   * Start odometry, once the encoders have been zeroed.
+   */
+  public void start() {
+    odometryNotifier.startPeriodic(Constants.Motor.odometryPeriod);
+  }
+
+  /**
+   * Runs on the odometry thread every {@link Constants.Motor#odometryPeriod}.
+   */
+  private void updateOdometry() {
+    Pose2d reset = pendingReset.getAndSet(null);
+    if (reset != null) {
+      odometry.resetPosition(reset, reset.getRotation());
+      poseHistory.clear();
+    }
+    // its own rate, so straight from the devices rather than the loop's SensorFrame
+    Pose2d updated = odometry.update(readHeading(), 
+    leftMas.getPosition()  * Constants.Motor.distancePerPulse,
+    rightMas.getPosition() * Constants.Motor.distancePerPulse);
+    pose = updated;
+    poseHistory.add(Timer.getFPGATimestamp(), 
+                    updated.getTranslation().getX(), 
+                    updated.getTranslation().getY(), 
+                    updated.getRotation().getRadians());
+  }
+
+  /**
+   * Returns where the robot was at a past time, e.g. when a camera frame was captured.
+   *
+   * @param timestamp FPGA timestamp, seconds
+   * @return interpolated pose, null if it's older than the history
+   */
+  public Pose2d getPoseAt(double timestamp) {
+    return poseHistory.getPose(timestamp);
+  }
 
+  /**
+   * Same as {@link #getPoseAt(double)} without allocating.
+   *
+   * @param timestamp FPGA timestamp, seconds
+   * @param out       receives x, y, heading(rad)
+   * @return false if it's older than the history
+   */
+  public boolean getPoseAt(double timestamp, double[] out) {
+    return poseHistory.sample(timestamp, out);
   }
 
   /**
@@ -66,12 +129,14 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
   /**
    * encoder velocity to chassis speed
    * 
-   * @return current chassis speed
+   * @return current chassis speed, m/s
    */
   public DifferentialDriveWheelSpeeds getSpeed() {
+    SensorFrame frame = SensorFrame.get();
+    // native velocity is per 100ms
     return new DifferentialDriveWheelSpeeds(
-      leftMas.getSelectedSensorVelocity() * Constants.Motor.distancePerPulse, 
-      rightMas.getSelectedSensorVelocity() * Constants.Motor.distancePerPulse
+      frame.leftVelocity * Constants.Motor.distancePerPulse * 10, 
+      frame.rightVelocity * Constants.Motor.distancePerPulse * 10
       );
   }
 
@@ -91,7 +156,9 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @param pose2d the trajectory origin
    */
   public void setOdmetry(Pose2d pose2d){
-    odometry.resetPosition(pose2d, pose2d.getRotation());
+    // Applied by the odometry thread on its next update
+    pendingReset.set(pose2d);
+    pose = pose2d;
   }
   
   /**
@@ -99,11 +166,11 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @return
    */
   public double getLeftVelocity(){
-    return ((leftMas.getSelectedSensorVelocity()));
+    return SensorFrame.get().leftVelocity;
   }
 
   public double getLeftPosition(){
-    return ((leftMas.getSelectedSensorPosition()));
+    return SensorFrame.get().leftPosition;
   }
 
   /**
@@ -111,7 +178,7 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @return
    */
   public double getRigthtVelocity(){
-    return ((rightMas.getSelectedSensorVelocity()));
+    return SensorFrame.get().rightVelocity;
   }
 
   /**
@@ -119,7 +186,7 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @return
    */
   public double getRigthtPosition(){
-    return ((rightMas.getSelectedSensorPosition()));
+    return SensorFrame.get().rightPosition;
   }
   
   /**
@@ -137,7 +204,7 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @return current "X"
    */
   public double getX(){
-    return odometry.getPoseMeters().getTranslation().getX();
+    return pose.getTranslation().getX();
   }  
 
   /**
@@ -146,13 +213,14 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @return current "Y"
    */
   public double getY(){
-    return odometry.getPoseMeters().getTranslation().getY();
+    return pose.getTranslation().getY();
   }
 
   
   public void setOutput(double left, double right) {
-    leftMas.set(ControlMode.Velocity, left / Constants.Motor.distancePerPulse / 10);
-    rightMas.set(ControlMode.Velocity, right / Constants.Motor.distancePerPulse / 10);
+    selectSlot(Constants.Motor.trajectorySlot);
+    output(ControlMode.Velocity, left / Constants.Motor.distancePerPulse / 10,
+                                 right / Constants.Motor.distancePerPulse / 10);
 
     // leftMas.set(ControlMode.PercentOutput, left);
     // rightMas.set(ControlMode.PercentOutput, right);
@@ -166,7 +234,18 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
    * @return the robot's heading 
    */
   public Rotation2d getHeading() {
-    return Rotation2d.fromDegrees(-ahrs.getAngle());
+    return Rotation2d.fromDegrees(-SensorFrame.get().gyroAngle);
+  }
+
+  /**
+   * Heading read from the gyro now, for the odometry thread.
+   */
+  private Rotation2d readHeading() {
+    return Rotation2d.fromDegrees(-gyro.getAngle());
+  }
+
+  public void resetEncoders() {
+    resetSensor();
   }
 
   /**
@@ -178,14 +257,6 @@ public class TrajectoryDrivetrain extends DrivetrainBase implements TrajectorySy
     //distants
     SmartDashboard.putNumber("leftDistants", getLeftPosition() * Constants.Motor.distancePerPulse);
     SmartDashboard.putNumber("rightDistants", getRigthtPosition() * Constants.Motor.distancePerPulse);
-    SmartDashboard.putNumber("Yaw", ahrs.getYaw());
-  }
-
-  @Override
-  public void periodic() {
-    pose = odometry.update(getHeading(), 
-    leftMas.getSelectedSensorPosition()  * Constants.Motor.distancePerPulse,
-    rightMas.getSelectedSensorPosition() * Constants.Motor.distancePerPulse);
-    message();
+    SmartDashboard.putNumber("Yaw", SensorFrame.get().gyroYaw);
   }
 }
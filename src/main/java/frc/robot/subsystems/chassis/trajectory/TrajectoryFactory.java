@@ -8,37 +8,59 @@
 package frc.robot.subsystems.chassis.trajectory;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.trajectory.Trajectory;
 import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
 public class TrajectoryFactory extends SubsystemBase {
-  private static Trajectory trajectory = null;
   /**
    * Creates a new TrajectoryFactory.
    */
   public TrajectoryFactory() {
 
   }
+  /**
+   * Load a trajectory from the deploy directory.
+   * Uses the precompiled binary made by the build (see {@link TrajectoryBinary}) when it is deployed,
+   * otherwise falls back to parsing the PathWeaver json.
+   * 
+   * @param mapPath PathWeaver output, e.g. {@link frc.robot.Constants.Trajectory#two}
+   * @return trajectory, null if the file can't be loaded
+   */
   public static Trajectory getTrajectory(String mapPath){
+    Trajectory trajectory = null;
     try {
-      Path trajectoryPath = Filesystem.getDeployDirectory().toPath().resolve(mapPath);
-      trajectory = TrajectoryUtil.fromPathweaverJson(trajectoryPath);
+      Path deployDirectory = Filesystem.getDeployDirectory().toPath();
+      Path binaryPath = deployDirectory.resolve(TrajectoryBinary.binaryPathOf(mapPath));
+      if(Files.exists(binaryPath)){
+        trajectory = TrajectoryBinary.fromBinary(binaryPath);
+      }else{
+        trajectory = TrajectoryUtil.fromPathweaverJson(deployDirectory.resolve(mapPath));
+      }
       SmartDashboard.putNumber("TotalTime", trajectory.getTotalTimeSeconds());
     } catch (IOException ex) {
       DriverStation.reportError("Unable to open trajectory: " + mapPath, ex.getStackTrace());
     }
     return trajectory;
   }
-  public static void initPose(TrajectorySystem drivetrain){
-    if(trajectory != null){
-      TrajectoryDrivetrain.resetSensor();
-      drivetrain.setOdmetry(trajectory.getInitialPose());
+  /**
+   * Reset sensors and odometry to the start of a trajectory.
+   * 
+   * @param drivetrain drivetrain
+   * @param mapPath    PathWeaver output the robot is about to follow
+   */
+  public static void initPose(TrajectorySystem drivetrain, String mapPath){
+    Pose2d initialPose = TrajectoryRegistry.getInitialPose(mapPath);
+    if(initialPose != null){
+      drivetrain.resetEncoders();
+      drivetrain.setOdmetry(initialPose);
     }
   }
 
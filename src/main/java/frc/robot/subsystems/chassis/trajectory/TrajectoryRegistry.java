@@ -0,0 +1,175 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.trajectory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.trajectory.Trajectory;
+
+/**
+ * Every trajectory is loaded once, on a background thread, and shared by path.
+ * Call {@link #preload(String...)} early (robotInit), then {@link #get(String)} where it's needed.
+ */
+public final class TrajectoryRegistry {
+  private static final Map<String, CompletableFuture<Trajectory>> trajectories = new ConcurrentHashMap<>();
+  private static final Map<String, TrajectorySampler> samplers = new ConcurrentHashMap<>();
+  private static final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "TrajectoryLoader");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  private static final AtomicInteger requests  = new AtomicInteger();
+  private static final AtomicInteger loads     = new AtomicInteger();
+  private static final AtomicLong    loadNanos = new AtomicLong();
+  private static final AtomicLong    waitNanos = new AtomicLong();
+
+  private TrajectoryRegistry() {
+  }
+
+  /**
+   * Start loading trajectories in the background, paths already loaded are skipped.
+   *
+   * @param mapPaths PathWeaver outputs, e.g. {@link frc.robot.Constants.Trajectory#all}
+   */
+  public static void preload(String... mapPaths) {
+    for (String mapPath : mapPaths) {
+      getFuture(mapPath);
+    }
+  }
+
+  /**
+   * Returns the handle of a trajectory, starting the load if nobody asked for it before.
+   * A load that fails or finds nothing isn't kept, the next request tries again.
+   *
+   * @param mapPath PathWeaver output
+   * @return future trajectory, completes with null if the file can't be loaded
+   */
+  public static CompletableFuture<Trajectory> getFuture(String mapPath) {
+    CompletableFuture<Trajectory> future = trajectories.get(mapPath);
+    if (future != null) {
+      return future;
+    }
+    CompletableFuture<Trajectory> loading = new CompletableFuture<>();
+    future = trajectories.putIfAbsent(mapPath, loading);
+    if (future != null) {
+      return future;
+    }
+    CompletableFuture.supplyAsync(() -> load(mapPath), loader).whenComplete((trajectory, ex) -> {
+      // forget it before anyone waiting on it wakes up, so their retry starts a new load
+      if (ex != null || trajectory == null) {
+        trajectories.remove(mapPath, loading);
+      }
+      if (ex != null) {
+        DriverStation.reportError("Trajectory " + mapPath + " failed to load: " + ex, ex.getStackTrace());
+      }
+      loading.complete(ex == null ? trajectory : null);
+    });
+    return loading;
+  }
+
+  private static Trajectory load(String path) {
+    long start = System.nanoTime();
+    Trajectory trajectory = TrajectoryFactory.getTrajectory(path);
+    if (trajectory != null) {
+      // the follower's table too, so building a command doesn't resample on the caller's thread
+      samplers.put(path, new TrajectorySampler(trajectory));
+    }
+    long elapsed = System.nanoTime() - start;
+    loads.incrementAndGet();
+    loadNanos.addAndGet(elapsed);
+    System.out.printf("Trajectory %s loaded in %.1f ms%n", path, elapsed / 1e6);
+    return trajectory;
+  }
+
+  /**
+   * Register an already loaded trajectory, e.g. in a simulation that doesn't have a deploy directory.
+   *
+   * @param mapPath    PathWeaver output
+   * @param trajectory trajectory
+   */
+  public static void put(String mapPath, Trajectory trajectory) {
+    trajectories.put(mapPath, CompletableFuture.completedFuture(trajectory));
+    samplers.remove(mapPath);
+  }
+
+  /**
+   * Returns a trajectory, waiting for the background load if it isn't ready yet.
+   *
+   * @param mapPath PathWeaver output
+   * @return trajectory, null if the file can't be loaded
+   */
+  public static Trajectory get(String mapPath) {
+    requests.incrementAndGet();
+    CompletableFuture<Trajectory> future = getFuture(mapPath);
+    if (future.isDone()) {
+      return future.join();
+    }
+    long start = System.nanoTime();
+    Trajectory trajectory = future.join();
+    waitNanos.addAndGet(System.nanoTime() - start);
+    return trajectory;
+  }
+
+  /**
+   * Returns a sampler of a trajectory. The table is built once per path and shared,
+   * each call gets its own sampler over it.
+   *
+   * @param mapPath PathWeaver output
+   * @return sampler, null if the file can't be loaded
+   */
+  public static TrajectorySampler getSampler(String mapPath) {
+    Trajectory trajectory = get(mapPath);
+    if (trajectory == null) {
+      return null;
+    }
+    return new TrajectorySampler(samplers.computeIfAbsent(mapPath, path -> new TrajectorySampler(trajectory)));
+  }
+
+  /**
+   * Returns the initial pose of a trajectory.
+   *
+   * @param mapPath PathWeaver output
+   * @return initial pose, null if the file can't be loaded
+   */
+  public static Pose2d getInitialPose(String mapPath) {
+    Trajectory trajectory = get(mapPath);
+    return trajectory == null ? null : trajectory.getInitialPose();
+  }
+
+  /**
+   * Show how much loading the registry saved.
+   * Without it every request was one more parse on the init path.
+   */
+  public static void report() {
+    int requestCount = requests.get();
+    int loadCount    = loads.get();
+    double loadMs    = loadNanos.get() / 1e6;
+    double waitMs    = waitNanos.get() / 1e6;
+    double avoidedMs = loadCount == 0 ? 0 : loadMs / loadCount * Math.max(0, requestCount - loadCount);
+
+    SmartDashboard.putNumber("Trajectory/requests", requestCount);
+    SmartDashboard.putNumber("Trajectory/loads", loadCount);
+    SmartDashboard.putNumber("Trajectory/background load ms", loadMs);
+    SmartDashboard.putNumber("Trajectory/main thread wait ms", waitMs);
+    SmartDashboard.putNumber("Trajectory/avoided parse ms", avoidedMs);
+    System.out.printf("Trajectory registry: %d requests, %d loads (%.1f ms in background), "
+                    + "main thread waited %.1f ms, about %.1f ms of repeated parsing avoided%n",
+                      requestCount, loadCount, loadMs, waitMs, avoidedMs);
+  }
+}
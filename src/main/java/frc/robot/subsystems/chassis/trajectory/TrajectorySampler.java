@@ -0,0 +1,159 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.trajectory;
+
+import edu.wpi.first.wpilibj.trajectory.Trajectory;
+
+/**
+ * Trajectory resampled at a fixed period into primitive arrays.
+ * {@link #sample(double)} is an index computation plus one interpolation, and doesn't allocate.
+ * Not thread safe, the latest sample is kept in this object.
+ */
+public class TrajectorySampler {
+  public static final double kDefaultPeriod = 0.005;
+
+  private static final double TWO_PI = 2 * Math.PI;
+
+  private final double period;
+  private final double totalTime;
+  private final int    last;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] headings;
+  private final double[] velocities;
+  private final double[] curvatures;
+
+  private double x;
+  private double y;
+  private double heading;
+  private double velocity;
+  private double curvature;
+
+  /**
+   * Creates a new TrajectorySampler with {@link #kDefaultPeriod}.
+   *
+   * @param trajectory trajectory
+   */
+  public TrajectorySampler(Trajectory trajectory) {
+    this(trajectory, kDefaultPeriod);
+  }
+
+  /**
+   * Creates a new TrajectorySampler.
+   *
+   * @param trajectory trajectory
+   * @param period     resample period, seconds
+   */
+  public TrajectorySampler(Trajectory trajectory, double period) {
+    this.period = period;
+    totalTime = trajectory.getTotalTimeSeconds();
+    int size  = (int) Math.ceil(totalTime / period) + 1;
+    last      = size - 1;
+
+    xs         = new double[size];
+    ys         = new double[size];
+    headings   = new double[size];
+    velocities = new double[size];
+    curvatures = new double[size];
+
+    for (int i = 0; i < size; i++) {
+      Trajectory.State state = trajectory.sample(Math.min(i * period, totalTime));
+      xs[i]         = state.poseMeters.getTranslation().getX();
+      ys[i]         = state.poseMeters.getTranslation().getY();
+      velocities[i] = state.velocityMetersPerSecond;
+      curvatures[i] = state.curvatureRadPerMeter;
+      // Unwrapped, so interpolating between two samples never goes the long way around.
+      double raw = state.poseMeters.getRotation().getRadians();
+      headings[i] = i == 0 ? raw : headings[i - 1] + wrap(raw - headings[i - 1]);
+    }
+    sample(0);
+  }
+
+  /**
+   * Creates a new TrajectorySampler sharing the table of another one.
+   * The table is never written after construction, so each thread can sample its own copy.
+   *
+   * @param table sampler to share the table with
+   */
+  public TrajectorySampler(TrajectorySampler table) {
+    period     = table.period;
+    totalTime  = table.totalTime;
+    last       = table.last;
+    xs         = table.xs;
+    ys         = table.ys;
+    headings   = table.headings;
+    velocities = table.velocities;
+    curvatures = table.curvatures;
+    sample(0);
+  }
+
+  /**
+   * Wrap angle to [-pi, pi].
+   *
+   * @param radians angle
+   * @return wrapped angle
+   */
+  public static double wrap(double radians) {
+    return Math.IEEEremainder(radians, TWO_PI);
+  }
+
+  /**
+   * Sample the trajectory, read the result with the getters.
+   *
+   * @param timeSeconds time since the start of the trajectory
+   */
+  public void sample(double timeSeconds) {
+    int index;
+    double fraction;
+    if (timeSeconds <= 0 || last == 0) {
+      index = 0;
+      fraction = 0;
+    } else if (timeSeconds >= totalTime) {
+      index = last - 1;
+      fraction = 1;
+    } else {
+      double position = timeSeconds / period;
+      index = Math.min((int) position, last - 1);
+      fraction = position - index;
+    }
+    int next = Math.min(index + 1, last);
+
+    x         = xs[index]         + (xs[next]         - xs[index])         * fraction;
+    y         = ys[index]         + (ys[next]         - ys[index])         * fraction;
+    heading   = headings[index]   + (headings[next]   - headings[index])   * fraction;
+    velocity  = velocities[index] + (velocities[next] - velocities[index]) * fraction;
+    curvature = curvatures[index] + (curvatures[next] - curvatures[index]) * fraction;
+  }
+
+  public double getTotalTimeSeconds() {
+    return totalTime;
+  }
+
+  public double getX() {
+    return x;
+  }
+
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * @return heading in radians, unwrapped
+   */
+  public double getHeading() {
+    return heading;
+  }
+
+  public double getVelocity() {
+    return velocity;
+  }
+
+  public double getCurvature() {
+    return curvature;
+  }
+}
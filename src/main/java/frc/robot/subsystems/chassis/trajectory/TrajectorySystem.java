@@ -7,6 +7,7 @@
 
 package frc.robot.subsystems.chassis.trajectory;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.controller.PIDController;
 import edu.wpi.first.wpilibj.controller.SimpleMotorFeedforward;
 import edu.wpi.first.wpilibj.geometry.Pose2d;
@@ -125,4 +126,18 @@ public interface TrajectorySystem extends Subsystem{
      * Show message
      */
     public void message();
+
+    /**
+     * Reset encoders and gyro before following a trajectory
+     */
+    public void resetEncoders();
+
+    /**
+     * Current time, simulated drivetrains run on virtual time
+     * 
+     * @return seconds
+     */
+    public default double getTimestamp() {
+        return Timer.getFPGATimestamp();
+    }
 }
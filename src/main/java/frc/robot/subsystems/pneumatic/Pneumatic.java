@@ -14,6 +14,15 @@ public class Pneumatic extends SubsystemBase {
   public void Pneumatic_ON(){
     c.setClosedLoopControl(true);
   }
+
+  /**
+   * Pause or resume the compressor, e.g. to save current.
+   *
+   * @param enabled closed loop on the pressure switch if true, off if false
+   */
+  public static void setCompressorEnabled(boolean enabled){
+    c.setClosedLoopControl(enabled);
+  }
   
   @Override
   public void periodic() {
@@ -1,34 +1,56 @@
 package frc.robot.subsystems.shooter;
 
 import com.ctre.phoenix.motorcontrol.*;
-import com.ctre.phoenix.motorcontrol.can.WPI_VictorSPX;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CtreMotorIO;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorHealth;
+import frc.robot.motor.MotorIO;
+import frc.robot.motor.MotorHealth.Action;
+import frc.robot.motor.StatusFrameProfile;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.PowCon;
 
 public class Conveyor extends Spinable{
-  private WPI_VictorSPX conveyor = new WPI_VictorSPX(PowCon.conveyor);
+  private final MotorIO conveyor;
+  private final ActuatorTable.Actuator output;
   double setVel = 0;
   double vel;
 
   public Conveyor() {
+    this(CtreMotorIO.victorSPX(PowCon.conveyor));
+  }
+
+  /**
+   * @param conveyor e.g. a {@link frc.robot.motor.FakeMotorIO} off the robot
+   */
+  public Conveyor(MotorIO conveyor) {
+    this.conveyor = conveyor;
+    output = ActuatorTable.register("conveyor", conveyor);
+    new MotorBatch("Conveyor")
+        .add(conveyor)
+        .statusFrames(conveyor, StatusFrameProfile.OPEN_LOOP_ACTUATOR)
+        .apply();
+    // Victor SPX, no current sensing so only the temperature
+    MotorHealth.register("conveyor", conveyor, output, false, Action.NONE, Action.DERATE, Action.NONE);
   }
   
   @Override
   public void forward() {
-    conveyor.set(ControlMode.PercentOutput, 0.7);
+    output.set(ControlMode.PercentOutput, 0.7);
 
   }
 
   @Override
   public void stop() {
-    conveyor.set(ControlMode.PercentOutput, 0);
+    output.set(ControlMode.PercentOutput, 0);
 
   }
 
   @Override
   public void reverse() {
-    conveyor.set(ControlMode.PercentOutput, -0.7);
+    output.set(ControlMode.PercentOutput, -0.7);
 
   }
   @Override
@@ -2,40 +2,72 @@ package frc.robot.subsystems.shooter;
 
 import com.ctre.phoenix.motorcontrol.*;
 import com.ctre.phoenix.motorcontrol.can.TalonFX;
-import frc.robot.motor.MotorFactory;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CtreMotorIO;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorHealth;
+import frc.robot.motor.MotorIO;
+import frc.robot.motor.MotorHealth.Action;
+import frc.robot.motor.MotorProfile;
+import frc.robot.motor.StatusFrameProfile;
+import frc.robot.sensor.SensorFrame;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.PowCon;
 
 public class Shooter extends Spinable{
-  private SupplyCurrentLimitConfiguration supplyCurrentLimitConfiguration = new SupplyCurrentLimitConfiguration(true, 40, 50, 1);
-  private TalonFX flywheel = new TalonFX(PowCon.flywheel);
+  private static final MotorProfile profile = MotorProfile.builder("flywheel")
+      .sensor(FeedbackDevice.IntegratedSensor)
+      .slot(0, PowCon.flywheel_kP, 0, 0, PowCon.flywheel_kF)
+      .supplyCurrentLimit(new SupplyCurrentLimitConfiguration(true, 40, 50, 1))
+      .closedloopRamp(0.5)
+      .build();
+  private final MotorIO flywheel;
+  private final ActuatorTable.Actuator output;
   double setVel = 0, vel;
 
   public Shooter() {
-    MotorFactory.setSensor(flywheel,FeedbackDevice.IntegratedSensor);
-    MotorFactory.configPF(flywheel,PowCon.flywheel_kP,PowCon.flywheel_kF,0);
-    flywheel.configSupplyCurrentLimit(supplyCurrentLimitConfiguration);
+    this(new CtreMotorIO(new TalonFX(PowCon.flywheel)));
+  }
+
+  /**
+   * @param flywheel e.g. a {@link frc.robot.motor.FakeMotorIO} off the robot
+   */
+  public Shooter(MotorIO flywheel) {
+    this.flywheel = flywheel;
+    output = ActuatorTable.register("flywheel", flywheel);
+    new MotorBatch("Shooter")
+        .add(flywheel, profile)
+        .statusFrames(flywheel, StatusFrameProfile.MASTER_CLOSED_LOOP)
+        .apply();
+    SensorFrame.register(this::sample);
+    MotorHealth.register("flywheel", flywheel, output, true, Action.REPORT, Action.DERATE, Action.REPORT);
     //MotorFactory.configmotorlimit(flywheel,0.001, 1, -1, 1, 30);
-    flywheel.configClosedloopRamp(0.5, 10);
-    
+  }
+
+  private int sample(SensorFrame frame){
+    frame.shooterTimestamp = Timer.getFPGATimestamp();
+    frame.flywheelVelocity = flywheel.getVelocity();
+    frame.flywheelVoltage  = flywheel.getOutputVoltage();
+    return 2;
   }
 
   public double getflywheelspeed(){
-    return flywheel.getSelectedSensorVelocity();
+    return SensorFrame.get().flywheelVelocity;
   }
   
   @Override
   public void forward() {
     vel = 7* 2000.0 * 2048.0 / 600.0;
-    flywheel.set(ControlMode.Velocity,vel);
+    output.set(ControlMode.Velocity, vel);
     setVel = vel;
   }
 
   @Override
   public void stop() {
-    flywheel.set(ControlMode.Velocity, 0);
+    output.set(ControlMode.Velocity, 0);
   }
 
   @Override
@@ -45,8 +77,9 @@ public class Shooter extends Spinable{
   
   @Override
   public void periodic() {
-    SmartDashboard.putNumber("flyvel", flywheel.getSelectedSensorVelocity());
-    SmartDashboard.putNumber("flyvol", flywheel.getMotorOutputVoltage());
+    SensorFrame frame = SensorFrame.get();
+    SmartDashboard.putNumber("flyvel", frame.flywheelVelocity);
+    SmartDashboard.putNumber("flyvol", frame.flywheelVoltage);
   }
 }
 
@@ -2,34 +2,61 @@ package frc.robot.subsystems.shooter;
 
 import com.ctre.phoenix.motorcontrol.*;
 import com.ctre.phoenix.motorcontrol.can.TalonSRX;
-import frc.robot.motor.MotorFactory;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CtreMotorIO;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorHealth;
+import frc.robot.motor.MotorIO;
+import frc.robot.motor.MotorHealth.Action;
+import frc.robot.motor.MotorProfile;
+import frc.robot.motor.StatusFrameProfile;
+import frc.robot.sensor.SensorFrame;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants.PowCon;
 
 public class Tower extends Spinable{
-  private SupplyCurrentLimitConfiguration supplyCurrentLimitConfiguration = new SupplyCurrentLimitConfiguration(true,
-      40, 50, 1);
-  private TalonSRX tower = new TalonSRX(PowCon.tower);
+  private static final MotorProfile profile = MotorProfile.builder("tower")
+      .sensor(FeedbackDevice.CTRE_MagEncoder_Relative)
+      .supplyCurrentLimit(new SupplyCurrentLimitConfiguration(true, 40, 50, 1))
+      .softLimits(3000, -3000)
+      .build();
+  private final MotorIO tower;
+  private final ActuatorTable.Actuator output;
   // private DigitalInput button = new DigitalInput(3);
 
   public Tower() {
-    tower.configFactoryDefault();
-    MotorFactory.setSensor(tower, FeedbackDevice.CTRE_MagEncoder_Relative);
-    tower.configSupplyCurrentLimit(supplyCurrentLimitConfiguration);
+    this(new CtreMotorIO(new TalonSRX(PowCon.tower)));
+  }
 
-    tower.configForwardSoftLimitThreshold(3000);
-    tower.configReverseSoftLimitThreshold(-3000);
+  /**
+   * @param tower e.g. a {@link frc.robot.motor.FakeMotorIO} off the robot
+   */
+  public Tower(MotorIO tower) {
+    this.tower = tower;
+    output = ActuatorTable.register("tower", tower);
+    // open loop, the position is only shown on the dashboard, the current is watched for stalls
+    new MotorBatch("Tower")
+        .add(tower, profile)
+        .statusFrames(tower, StatusFrameProfile.MONITORED_ACTUATOR)
+        .apply();
+    SensorFrame.register(this::sample);
+    MotorHealth.register("tower", tower, output, true, Action.STOP, Action.DERATE, Action.REPORT);
+  }
 
-    tower.configForwardSoftLimitEnable(true);
-    tower.configReverseSoftLimitEnable(true);
+  private int sample(SensorFrame frame) {
+    frame.towerTimestamp = Timer.getFPGATimestamp();
+    frame.towerPosition  = tower.getPosition();
+    frame.towerVelocity  = tower.getVelocity();
+    return 2;
   }
 
   public double gettowerspeed() {
-    return tower.getSelectedSensorVelocity();
+    return SensorFrame.get().towerVelocity;
   }
 
 	public double getSelectedSensorPosition() {
-		return tower.getSelectedSensorPosition();
+		return SensorFrame.get().towerPosition;
   }
   
   // public void zero(){
@@ -38,23 +65,23 @@ public class Tower extends Spinable{
 
   @Override
   public void forward() {
-    tower.set(ControlMode.PercentOutput, 0.5);
+    output.set(ControlMode.PercentOutput, 0.5);
   }
 
   @Override
   public void stop() {
-    tower.set(ControlMode.PercentOutput, 0);
+    output.set(ControlMode.PercentOutput, 0);
 
   }
 
   @Override
   public void reverse() {
-    tower.set(ControlMode.PercentOutput, -0.5);
+    output.set(ControlMode.PercentOutput, -0.5);
 
   }
   @Override
   public void periodic() {
-    SmartDashboard.putNumber("towerPosition", tower.getSelectedSensorPosition());
+    SmartDashboard.putNumber("towerPosition", SensorFrame.get().towerPosition);
     // This method will be called once per scheduler run
   }
     }
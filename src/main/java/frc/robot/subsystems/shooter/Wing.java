@@ -1,34 +1,64 @@
 package frc.robot.subsystems.shooter;
 
 import com.ctre.phoenix.motorcontrol.*;
-import com.ctre.phoenix.motorcontrol.can.WPI_VictorSPX;
-import frc.robot.motor.MotorFactory;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import frc.robot.motor.ActuatorTable;
+import frc.robot.motor.CtreMotorIO;
+import frc.robot.motor.MotorBatch;
+import frc.robot.motor.MotorHealth;
+import frc.robot.motor.MotorHealth.Action;
+import frc.robot.motor.MotorIO;
+import frc.robot.motor.StatusFrameProfile;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.PowCon;
 
 public class Wing extends Spinable{
-  private final WPI_VictorSPX wideleft = new WPI_VictorSPX(PowCon.wideleft);
-  private final WPI_VictorSPX wideright = new WPI_VictorSPX(PowCon.wideright);
+  private final MotorIO wideleft;
+  private final MotorIO wideright;
+  // wideright follows
+  private final ActuatorTable.Actuator output;
   
   public Wing(){
-    MotorFactory.setFollower(wideleft, wideright);
-    MotorFactory.setInvert(wideright, InvertType.FollowMaster);
+    this(CtreMotorIO.victorSPX(PowCon.wideleft), CtreMotorIO.victorSPX(PowCon.wideright));
+  }
+
+  /**
+   * @param wideleft  e.g. a {@link frc.robot.motor.FakeMotorIO} off the robot
+   * @param wideright follows wideleft
+   */
+  public Wing(MotorIO wideleft, MotorIO wideright){
+    this.wideleft  = wideleft;
+    this.wideright = wideright;
+    output = ActuatorTable.register("wing", wideleft);
+    new MotorBatch("Wing")
+        .add(wideleft)
+        .add(wideright)
+        .then(wideleft,  BaseMotorController::configFactoryDefault)
+        .then(wideright, BaseMotorController::configFactoryDefault)
+        .statusFrames(wideleft,  StatusFrameProfile.OPEN_LOOP_ACTUATOR)
+        .statusFrames(wideright, StatusFrameProfile.FOLLOWER)
+        .follow(wideright, wideleft)
+        .then(wideright, motor -> motor.setInverted(InvertType.FollowMaster))
+        .apply();
+    // Victor SPXs, no current sensing so only the temperature
+    MotorHealth.register("wing left",  wideleft,  output, false, Action.NONE, Action.DERATE, Action.NONE);
+    MotorHealth.register("wing right", wideright, output, false, Action.NONE, Action.DERATE, Action.NONE);
   }
 
   @Override
   public void forward() {
-    wideleft.set(-0.5);
+    output.set(ControlMode.PercentOutput, -0.5);
   }
 
   @Override
   public void stop() {
-    wideleft.set(0);
+    output.set(ControlMode.PercentOutput, 0);
   }
 
   @Override
   public void reverse() {
-    wideleft.set(0.1);
+    output.set(ControlMode.PercentOutput, 0.1);
   }
   
   @Override
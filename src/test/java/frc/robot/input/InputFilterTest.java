@@ -0,0 +1,79 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class InputFilterTest {
+  private static final double kEpsilon = 1e-12;
+  private static final double kDt      = 0.02;
+
+  @Test
+  public void deadbandZeroesTheCenter() {
+    InputFilter deadband = InputFilter.deadband(0.05);
+    assertEquals(0.0, deadband.calculate(0.0, kDt), 0);
+    assertEquals(0.0, deadband.calculate(0.05, kDt), 0);
+    assertEquals(0.0, deadband.calculate(-0.05, kDt), 0);
+    assertEquals(0.0, deadband.calculate(0.03, kDt), 0);
+  }
+
+  @Test
+  public void deadbandStillReachesFullScale() {
+    InputFilter deadband = InputFilter.deadband(0.05);
+    assertEquals(1.0, deadband.calculate(1.0, kDt), kEpsilon);
+    assertEquals(-1.0, deadband.calculate(-1.0, kDt), kEpsilon);
+    assertEquals(0.5, deadband.calculate(0.525, kDt), kEpsilon);
+  }
+
+  @Test
+  public void deadbandIsContinuousAtTheEdge() {
+    InputFilter deadband = InputFilter.deadband(0.05);
+    double justOutside = deadband.calculate(0.05 + 1e-9, kDt);
+    assertTrue(justOutside > 0);
+    assertTrue(justOutside < 1e-8);
+    assertEquals(-justOutside, deadband.calculate(-0.05 - 1e-9, kDt), kEpsilon);
+  }
+
+  @Test
+  public void expoKeepsCenterAndEnds() {
+    InputFilter expo = InputFilter.expo(0.3);
+    assertEquals(0.0, expo.calculate(0.0, kDt), 0);
+    assertEquals(1.0, expo.calculate(1.0, kDt), kEpsilon);
+    assertEquals(-1.0, expo.calculate(-1.0, kDt), kEpsilon);
+  }
+
+  @Test
+  public void expoSoftensTheMiddleSymmetrically() {
+    InputFilter expo = InputFilter.expo(0.3);
+    // 0.7 * 0.5 + 0.3 * 0.125
+    assertEquals(0.3875, expo.calculate(0.5, kDt), kEpsilon);
+    assertEquals(-0.3875, expo.calculate(-0.5, kDt), kEpsilon);
+    assertEquals(0.5, InputFilter.expo(0).calculate(0.5, kDt), 0);
+    assertEquals(0.125, InputFilter.expo(1).calculate(0.5, kDt), kEpsilon);
+  }
+
+  @Test
+  public void chainAppliesStagesInOrder() {
+    InputChain chain = new InputChain(InputFilter.deadband(0.05), InputFilter.expo(1), InputFilter.scale(0.5));
+    assertEquals(0.0, chain.calculate(0.04, kDt), 0);
+    assertEquals(0.5, chain.calculate(1.0, kDt), kEpsilon);
+    assertEquals(-0.5, chain.calculate(-1.0, kDt), kEpsilon);
+    assertEquals(0.7, new InputChain().calculate(0.7, kDt), 0);
+  }
+
+  @Test
+  public void rawProfileOnlyScales() {
+    InputChain throttle = DriverProfile.RAW.throttle();
+    assertEquals(0.5, throttle.calculate(1.0, kDt), 0);
+    assertEquals(-0.5, throttle.calculate(-1.0, kDt), 0);
+    assertEquals(0.01, throttle.calculate(0.02, kDt), 0);
+  }
+}
@@ -0,0 +1,77 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.input;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SlewLimiterTest {
+  private static final double kEpsilon = 1e-12;
+  private static final double kDt      = 0.02;
+
+  @Test
+  public void speedsUpAtTheAccelerationRate() {
+    SlewLimiter limiter = new SlewLimiter(1, 2);
+    assertEquals(0.02, limiter.calculate(1, kDt), kEpsilon);
+    assertEquals(0.04, limiter.calculate(1, kDt), kEpsilon);
+    assertEquals(-0.02, new SlewLimiter(1, 2).calculate(-1, kDt), kEpsilon);
+  }
+
+  @Test
+  public void reachesFullScaleAndStays() {
+    SlewLimiter limiter = new SlewLimiter(1, 2);
+    double value = 0;
+    for (int i = 0; i < 100; i++) {
+      value = limiter.calculate(1, kDt);
+    }
+    assertEquals(1.0, value, kEpsilon);
+    assertEquals(1.0, limiter.calculate(1, kDt), kEpsilon);
+  }
+
+  @Test
+  public void slowsDownAtTheDecelerationRate() {
+    SlewLimiter limiter = new SlewLimiter(1, 2);
+    for (int i = 0; i < 25; i++) {
+      limiter.calculate(1, kDt);
+    }
+    assertEquals(0.46, limiter.calculate(0, kDt), kEpsilon);
+    assertEquals(0.42, limiter.calculate(0, kDt), kEpsilon);
+  }
+
+  @Test
+  public void reversalStopsAtZeroFirst() {
+    SlewLimiter limiter = new SlewLimiter(1, 2);
+    limiter.calculate(1, kDt);
+    // 0.02 - 0.04 would cross zero, it stops there
+    assertEquals(0.0, limiter.calculate(-1, kDt), 0);
+    // the other side speeds up with the acceleration limit
+    assertEquals(-0.02, limiter.calculate(-1, kDt), kEpsilon);
+  }
+
+  @Test
+  public void unlimitedPassesThroughEvenWithoutTime() {
+    SlewLimiter limiter = new SlewLimiter(Double.POSITIVE_INFINITY);
+    assertEquals(1.0, limiter.calculate(1, 0), 0);
+    assertEquals(0.0, limiter.calculate(0, 0), 0);
+    assertEquals(-1.0, limiter.calculate(-1, 0), 0);
+    // a reversal still passes through zero for one sample
+    assertEquals(0.0, limiter.calculate(1, 0), 0);
+    assertEquals(1.0, limiter.calculate(1, 0), 0);
+  }
+
+  @Test
+  public void resetContinuesFromRest() {
+    SlewLimiter limiter = new SlewLimiter(1, 2);
+    for (int i = 0; i < 10; i++) {
+      limiter.calculate(1, kDt);
+    }
+    limiter.reset();
+    assertEquals(0.02, limiter.calculate(1, kDt), kEpsilon);
+  }
+}
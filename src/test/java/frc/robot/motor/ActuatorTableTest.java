@@ -0,0 +1,87 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+
+package frc.robot.motor;
+
+import static org.junit.Assert.assertEquals;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import frc.robot.Constants;
+
+public class ActuatorTableTest {
+    private static final double kEpsilon = 1e-12;
+
+    private FakeMotorIO motor;
+    private ActuatorTable.Actuator actuator;
+
+    @Before
+    public void setUp() {
+        ActuatorTable.reset();
+        motor    = FakeMotorIO.falcon("motor", 0.1);
+        actuator = ActuatorTable.register("motor", motor);
+    }
+
+    @After
+    public void tearDown() {
+        ActuatorTable.reset();
+    }
+
+    @Test
+    public void sendsOnlyChanges() {
+        actuator.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(0);
+        actuator.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(0.02);
+        assertEquals(1, motor.getSetCount());
+        assertEquals(1, ActuatorTable.getTotalSkipped());
+
+        actuator.set(ControlMode.PercentOutput, 0.6);
+        ActuatorTable.commit(0.04);
+        assertEquals(2, motor.getSetCount());
+        assertEquals(0.6, motor.getDemand(), kEpsilon);
+    }
+
+    @Test
+    public void resendsAfterKeepAlive() {
+        actuator.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(0);
+        actuator.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(Constants.Actuator.keepAlive);
+        assertEquals(2, motor.getSetCount());
+    }
+
+    @Test
+    public void sendsAfterALoopWithoutWrite() {
+        actuator.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(0);
+        ActuatorTable.commit(0.02);
+        actuator.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(0.04);
+        assertEquals(2, motor.getSetCount());
+    }
+
+    @Test
+    public void scalesByTheLimit() {
+        actuator.setLimit(0.5);
+        actuator.set(ControlMode.PercentOutput, 0.8, 0.2);
+        ActuatorTable.commit(0);
+        assertEquals(0.4, motor.getDemand(), kEpsilon);
+        assertEquals(0.1, motor.getFeedforward(), kEpsilon);
+
+        actuator.setLimit(0);
+        actuator.set(ControlMode.Position, 1000);
+        ActuatorTable.commit(0.02);
+        assertEquals(ControlMode.PercentOutput, motor.getMode());
+        assertEquals(0, motor.getDemand(), kEpsilon);
+    }
+}
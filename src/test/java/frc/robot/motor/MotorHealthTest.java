@@ -0,0 +1,140 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+
+package frc.robot.motor;
+
+import static org.junit.Assert.assertEquals;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import frc.robot.Constants;
+import frc.robot.motor.MotorHealth.Action;
+
+/**
+ * Runs the monitor by hand on fakes, without its notifier, one sample per {@link Constants.Health#period}.
+ */
+public class MotorHealthTest {
+    private static final double kEpsilon = 1e-12;
+
+    private double now;
+
+    @Before
+    public void setUp() {
+        ActuatorTable.reset();
+        MotorHealth.reset();
+        now = 0;
+    }
+
+    @After
+    public void tearDown() {
+        MotorHealth.reset();
+        ActuatorTable.reset();
+    }
+
+    /**
+     * Commit the outputs, then move the fakes and sample for a window.
+     */
+    private void run(FakeMotorIO... motors) {
+        ActuatorTable.commit(now);
+        for (int i = 0; i < Constants.Health.window; i++) {
+            for (FakeMotorIO motor : motors) {
+                motor.update(Constants.Health.period);
+            }
+            MotorHealth.sample();
+        }
+        now += Constants.Health.window * Constants.Health.period;
+        MotorHealth.apply(now);
+    }
+
+    @Test
+    public void freeMotorIsHealthy() {
+        FakeMotorIO motor = FakeMotorIO.falcon("free", 0.05);
+        ActuatorTable.Actuator output = ActuatorTable.register("free", motor);
+        MotorHealth.register("free", motor, output, true, Action.STOP, Action.DERATE, Action.NONE);
+
+        output.set(ControlMode.PercentOutput, 0.5);
+        run(motor);
+        output.set(ControlMode.PercentOutput, 0.5);
+        run(motor);
+        assertEquals(0, MotorHealth.getFaults("free"));
+        assertEquals(1, output.getLimit(), kEpsilon);
+    }
+
+    @Test
+    public void jamStopsTheMotor() {
+        FakeMotorIO motor = FakeMotorIO.falcon("jammed", 0.05);
+        ActuatorTable.Actuator output = ActuatorTable.register("jammed", motor);
+        MotorHealth.register("jammed", motor, output, true, Action.STOP, Action.DERATE, Action.NONE);
+
+        motor.setJammed(true);
+        output.set(ControlMode.PercentOutput, 0.5);
+        run(motor);
+        assertEquals(MotorHealth.STALL, MotorHealth.getFaults("jammed"));
+        assertEquals(0, output.getLimit(), kEpsilon);
+
+        output.set(ControlMode.PercentOutput, 0.5);
+        ActuatorTable.commit(now);
+        assertEquals(0, motor.getDemand(), kEpsilon);
+    }
+
+    @Test
+    public void stopIsHeldAfterTheJamClears() {
+        FakeMotorIO motor = FakeMotorIO.falcon("jammed", 0.05);
+        ActuatorTable.Actuator output = ActuatorTable.register("jammed", motor);
+        MotorHealth.register("jammed", motor, output, true, Action.STOP, Action.DERATE, Action.NONE);
+
+        motor.setJammed(true);
+        output.set(ControlMode.PercentOutput, 0.5);
+        run(motor);
+        double stopped = now;
+
+        // stopped, so no current and no fault, but the stop stays for the hold time
+        motor.setJammed(false);
+        while (now - stopped < Constants.Health.holdTime) {
+            output.set(ControlMode.PercentOutput, 0.5);
+            run(motor);
+            assertEquals(0, MotorHealth.getFaults("jammed"));
+            assertEquals(now >= stopped + Constants.Health.holdTime ? 1 : 0, output.getLimit(), kEpsilon);
+        }
+        assertEquals(1, output.getLimit(), kEpsilon);
+    }
+
+    @Test
+    public void jammedFollowerStopsItsMaster() {
+        FakeMotorIO master   = FakeMotorIO.falcon("master", 0.05);
+        FakeMotorIO follower = FakeMotorIO.falcon("follower", 0.05);
+        follower.follow(master);
+        ActuatorTable.Actuator output = ActuatorTable.register("shared", master);
+        MotorHealth.register("follower", follower, output, true, Action.STOP, Action.DERATE, Action.NONE);
+        MotorHealth.register("master", master, output, true, Action.STOP, Action.DERATE, Action.NONE);
+
+        follower.setJammed(true);
+        output.set(ControlMode.PercentOutput, 0.5);
+        run(master, follower);
+        assertEquals(0, MotorHealth.getFaults("master"));
+        assertEquals(MotorHealth.STALL, MotorHealth.getFaults("follower"));
+        assertEquals(0, output.getLimit(), kEpsilon);
+    }
+
+    @Test
+    public void noCurrentSensingNoStall() {
+        FakeMotorIO motor = new FakeMotorIO("victor", FakeMotorIO.kFalconFreeSpeed, 0.05, 100, false);
+        ActuatorTable.Actuator output = ActuatorTable.register("victor", motor);
+        MotorHealth.register("victor", motor, output, false, Action.NONE, Action.STOP, Action.NONE);
+
+        motor.setJammed(true);
+        output.set(ControlMode.PercentOutput, 1);
+        run(motor);
+        assertEquals(0, MotorHealth.getFaults("victor"));
+        assertEquals(1, output.getLimit(), kEpsilon);
+    }
+}
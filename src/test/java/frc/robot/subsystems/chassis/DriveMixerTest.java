@@ -0,0 +1,103 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * {@link DriveMixer} must give the same bits as the DifferentialDrive mixing it replaced,
+ * kept as {@link LegacyDriveMixing}.
+ */
+public class DriveMixerTest {
+  private static final int INPUTS = 1024;
+  private static final double[] SPECIAL = {0.0, -0.0, 0.08, -0.08, 1.0, -1.0, 1.5, -1.5, Double.NaN, 1e-300, -1e-300};
+
+  /**
+   * Every mode, with and without squared inputs, right side inverted or not, and curvature's quick stop
+   * state carried through the whole sequence.
+   */
+  @Test
+  public void sameBitsAsLegacyMixing() {
+    double[] xs = new double[INPUTS];
+    double[] zs = new double[INPUTS];
+    boolean[] buttons = new boolean[INPUTS];
+    Random random = new Random(1678);
+    for (int i = 0; i < INPUTS; i++) {
+      // mostly in range, some inside the deadband, some past full scale
+      xs[i] = Math.sin(i * 0.05) * 1.1 + random.nextGaussian() * 0.05;
+      zs[i] = Math.cos(i * 0.031) * 1.1 + random.nextGaussian() * 0.05;
+      buttons[i] = (i / 100) % 3 == 0;
+    }
+
+    for (int inverted = 0; inverted < 2; inverted++) {
+      for (int square = 0; square < 2; square++) {
+        DriveMixer mixer = configure(new DriveMixer());
+        LegacyDriveMixing legacy = configure(new LegacyDriveMixing());
+        mixer.setRightSideInverted(inverted == 1);
+        legacy.setRightSideInverted(inverted == 1);
+        mixer.setMaxOutput(0.7);
+        legacy.setMaxOutput(0.7);
+        WheelOutput expected = new WheelOutput();
+        WheelOutput actual = new WheelOutput();
+        boolean squareInputs = square == 1;
+
+        for (int i = 0; i < INPUTS + SPECIAL.length * SPECIAL.length; i++) {
+          double x;
+          double z;
+          boolean button;
+          if (i < INPUTS) {
+            x = xs[i];
+            z = zs[i];
+            button = buttons[i];
+          } else {
+            int k = i - INPUTS;
+            x = SPECIAL[k / SPECIAL.length];
+            z = SPECIAL[k % SPECIAL.length];
+            button = (k & 1) == 0;
+          }
+          legacy.arcadeDrive(x, z, squareInputs, expected);
+          mixer.arcade(x, z, squareInputs, actual);
+          check("arcade", x, z, expected, actual);
+          legacy.curvatureDrive(x, z, button, expected);
+          mixer.curvature(x, z, button, actual);
+          check("curvature", x, z, expected, actual);
+          legacy.tankDrive(x, z, squareInputs, expected);
+          mixer.tank(x, z, squareInputs, actual);
+          check("tank", x, z, expected, actual);
+        }
+      }
+    }
+  }
+
+  /**
+   * Settings of ControlDrivetrain.
+   */
+  private static DriveMixer configure(DriveMixer mixer) {
+    mixer.setDeadband(0.08);
+    mixer.setQuickStopAlpha(0.1);
+    mixer.setQuickStopThreshold(0.1);
+    return mixer;
+  }
+
+  private static LegacyDriveMixing configure(LegacyDriveMixing legacy) {
+    legacy.setDeadband(0.08);
+    legacy.setQuickStopAlpha(0.1);
+    legacy.setQuickStopThreshold(0.1);
+    return legacy;
+  }
+
+  private static void check(String mode, double x, double z, WheelOutput expected, WheelOutput actual) {
+    String input = mode + "(" + x + ", " + z + ")";
+    assertEquals(input + " left", Double.doubleToRawLongBits(expected.left), Double.doubleToRawLongBits(actual.left));
+    assertEquals(input + " right", Double.doubleToRawLongBits(expected.right), Double.doubleToRawLongBits(actual.right));
+  }
+}
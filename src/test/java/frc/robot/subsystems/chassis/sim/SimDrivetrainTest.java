@@ -0,0 +1,50 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2019 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package frc.robot.subsystems.chassis.sim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.wpi.first.wpilibj.geometry.Pose2d;
+import edu.wpi.first.wpilibj.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.trajectory.TrajectoryUtil;
+import frc.robot.Constants;
+import frc.robot.commands.auto.LeftUp;
+import frc.robot.subsystems.chassis.trajectory.TrackingRecorder;
+import frc.robot.subsystems.chassis.trajectory.TrajectoryRegistry;
+
+public class SimDrivetrainTest {
+  // loose enough for tuning changes, a broken follower misses by meters
+  private static final double kEndTolerance = 0.15;
+
+  @BeforeClass
+  public static void loadTrajectories() throws IOException {
+    // gradle runs tests from the project directory
+    for (String path : Constants.Trajectory.all) {
+      TrajectoryRegistry.put(path, TrajectoryUtil.fromPathweaverJson(Paths.get("src/main/deploy", path)));
+    }
+    TrackingRecorder.setEnabled(false);
+  }
+
+  @Test
+  public void leftUpEndsOnTheLastPose() {
+    SimDrivetrain drivetrain = new SimDrivetrain();
+    Trajectory trajectory = TrajectoryRegistry.get(Constants.Trajectory.three);
+    double simSeconds = drivetrain.run(new LeftUp(drivetrain), 30);
+
+    Pose2d end = trajectory.sample(trajectory.getTotalTimeSeconds()).poseMeters;
+    double error = drivetrain.getPose().getTranslation().getDistance(end.getTranslation());
+    assertTrue("timed out after " + simSeconds + " s", simSeconds < 30);
+    assertTrue("end error " + error + " m", error < kEndTolerance);
+  }
+}